@@ -8,8 +8,16 @@ LWJGL_CP="."
 if [ -d "lib/lwjgl" ]; then
   LWJGL_CP=".:lib/lwjgl/*"
 fi
-SOURCES=$(find src/main/java -type f -name "*.java")
-javac -d build/classes -cp "$LWJGL_CP" $SOURCES
+# 向量积分内核依赖 jdk.incubator.vector 模块；当前 JDK 没有该模块时排除其源码，运行时自动使用标量内核
+VECTOR_FLAGS=""
+VECTOR_SRC="src/main/java/com/gameengine/core/VectorIntegrationKernel.java"
+if java --list-modules 2>/dev/null | grep -q "^jdk.incubator.vector"; then
+  VECTOR_FLAGS="--add-modules jdk.incubator.vector"
+  SOURCES=$(find src/main/java -type f -name "*.java")
+else
+  SOURCES=$(find src/main/java -type f -name "*.java" ! -path "$VECTOR_SRC")
+fi
+javac $VECTOR_FLAGS -d build/classes -cp "$LWJGL_CP" $SOURCES
 
 LWJGL_DIR="lib/lwjgl"
 CLASSPATH="build/classes"
@@ -31,9 +39,9 @@ case "$ARCH_RAW" in
   *) ARCH_ID="";;
 esac
 
-JAVA_FLAGS=""
+JAVA_FLAGS="$VECTOR_FLAGS"
 if [ -n "$OS_ID" ] && [ -n "$ARCH_ID" ] && [ -d "$LWJGL_DIR/natives/${OS_ID}-${ARCH_ID}" ]; then
-  JAVA_FLAGS="-Dorg.lwjgl.librarypath=$LWJGL_DIR/natives/${OS_ID}-${ARCH_ID}"
+  JAVA_FLAGS="$JAVA_FLAGS -Dorg.lwjgl.librarypath=$LWJGL_DIR/natives/${OS_ID}-${ARCH_ID}"
 fi
 
 if [[ "$OS" == Darwin* ]]; then
@@ -0,0 +1,154 @@
+package com.gameengine.benchmark;
+
+import com.gameengine.collision.CollisionWorld;
+import com.gameengine.collision.ContactSolver;
+import com.gameengine.components.ColliderComponent;
+import com.gameengine.components.PhysicsComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.core.FrameArena;
+import com.gameengine.core.GameObject;
+import com.gameengine.core.ParticleSystem;
+import com.gameengine.core.PhysicsSystem;
+import com.gameengine.math.Vector2;
+import com.gameengine.scene.Scene;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+/**
+ * 分配回归检查
+ * 用 ThreadMXBean 统计当前线程在热路径上每帧分配的字节数：Vector2 原地运算、粒子更新、
+ * 物理积分和碰撞同步 + 接触求解。热身后这些路径应当不分配内存，超过阈值时以退出码 1 结束，
+ * 可以直接放进构建脚本重复检查
+ *
+ * 物体数需保持在各系统的并行阈值以下（PhysicsSystem 为 512），所有工作都在当前线程完成，统计才完整
+ *
+ * 用法: AllocationBenchmark [物体数] [帧数]
+ */
+public class AllocationBenchmark {
+    /** 每帧允许的分配字节数：JIT 偶尔在测量期间完成编译，留出少量余量 */
+    private static final long TOLERANCE_BYTES_PER_FRAME = 16;
+    /** 热身帧数下限：热路径需要被 C2 编译、逃逸分析生效后才不分配 */
+    private static final int WARMUP_FRAMES = 3000;
+    private static final float DT = 1.0f / 60.0f;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int frames = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        if (!THREADS.isThreadAllocatedMemorySupported()) {
+            System.out.println("当前 JVM 不支持线程分配统计");
+            return;
+        }
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+        System.out.println("物体 " + count + "，帧数 " + frames);
+
+        boolean ok = true;
+        ok &= report("Vector2 原地运算", measure(vectorOps(count), frames));
+        ok &= report("粒子更新", measure(particles(count), frames));
+        ok &= report("物理积分", measure(physics(count), frames));
+        ok &= report("碰撞同步 + 接触求解", measure(collisions(count), frames));
+        if (!ok) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * 热身后测量每帧平均分配字节数；每帧结束时像 GameEngine 一样回收帧内临时对象
+     */
+    private static double measure(Runnable frame, int frames) {
+        for (int f = 0; f < Math.max(WARMUP_FRAMES, frames); f++) {
+            frame.run();
+            FrameArena.current().reset();
+        }
+        long thread = Thread.currentThread().getId();
+        long before = THREADS.getThreadAllocatedBytes(thread);
+        for (int f = 0; f < frames; f++) {
+            frame.run();
+            FrameArena.current().reset();
+        }
+        return (double) (THREADS.getThreadAllocatedBytes(thread) - before) / frames;
+    }
+
+    private static boolean report(String name, double bytesPerFrame) {
+        boolean ok = bytesPerFrame <= TOLERANCE_BYTES_PER_FRAME;
+        System.out.printf("%-20s %10.1f 字节/帧  %s%n", name, bytesPerFrame, ok ? "通过" : "失败");
+        return ok;
+    }
+
+    private static Runnable vectorOps(int count) {
+        Vector2[] positions = new Vector2[count];
+        Vector2[] velocities = new Vector2[count];
+        Random random = new Random(42);
+        for (int i = 0; i < count; i++) {
+            positions[i] = new Vector2(random.nextFloat() * 800, random.nextFloat() * 600);
+            velocities[i] = new Vector2(random.nextFloat() - 0.5f, random.nextFloat() - 0.5f);
+        }
+        Vector2 center = new Vector2(400, 300);
+        Vector2 scratch = new Vector2();
+        return () -> {
+            for (int i = 0; i < count; i++) {
+                Vector2 p = positions[i];
+                scratch.set(center).subtractLocal(p).normalizeLocal().scaleLocal(0.1f);
+                velocities[i].addLocal(scratch).scaleLocal(0.99f);
+                p.mulAdd(velocities[i], DT);
+                if (p.distanceSquared(center) > 1e6f) {
+                    p.set(center);
+                }
+            }
+        };
+    }
+
+    private static Runnable particles(int count) {
+        ParticleSystem.Config config = ParticleSystem.Config.defaultPlayer();
+        config.capacity = count * 4;
+        config.initialCount = 0;
+        ParticleSystem system = new ParticleSystem(null, new Vector2(400, 300), config);
+        system.setSeed(42L);
+        system.setActive(false);
+        return () -> {
+            system.update(DT);
+            system.burst(count - system.getParticleCount());
+        };
+    }
+
+    private static Scene createScene(int count) {
+        Scene scene = new Scene("AllocationBenchmark");
+        Random random = new Random(42);
+        for (int i = 0; i < count; i++) {
+            GameObject obj = new GameObject("Body");
+            obj.addComponent(new TransformComponent(new Vector2(random.nextFloat() * 800, random.nextFloat() * 600)));
+            PhysicsComponent physics = obj.addComponent(new PhysicsComponent(1.0f));
+            physics.setVelocity((random.nextFloat() - 0.5f) * 300, (random.nextFloat() - 0.5f) * 300);
+            physics.setFriction(0.98f);
+            physics.setRestitution(0.8f);
+            obj.addComponent(new ColliderComponent(10, 1));
+            scene.addGameObject(obj);
+        }
+        scene.update(0);
+        return scene;
+    }
+
+    private static Runnable physics(int count) {
+        Scene scene = createScene(count);
+        PhysicsSystem physicsSystem = new PhysicsSystem(scene, 800, 600);
+        physicsSystem.setSleepEnabled(false);
+        return () -> physicsSystem.update(DT);
+    }
+
+    private static Runnable collisions(int count) {
+        Scene scene = createScene(count);
+        PhysicsSystem physicsSystem = new PhysicsSystem(scene, 800, 600);
+        CollisionWorld collisionWorld = new CollisionWorld(scene);
+        collisionWorld.setParallel(false);
+        physicsSystem.setCollisionWorld(collisionWorld);
+        ContactSolver solver = new ContactSolver();
+        return () -> {
+            physicsSystem.update(DT);
+            collisionWorld.update();
+            solver.solve(collisionWorld.getContacts());
+        };
+    }
+}
@@ -0,0 +1,139 @@
+package com.gameengine.benchmark;
+
+import com.gameengine.collision.Broadphase;
+import com.gameengine.collision.BroadphaseFactory;
+import com.gameengine.collision.BroadphaseType;
+import com.gameengine.recording.FileRecordingStorage;
+import com.gameengine.recording.RecordingJson;
+import com.gameengine.recording.RecordingStorage;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 宽相位基准测试
+ * 读取 GameScene 的录制文件，按关键帧回放实体位置，对比网格与 AABB 树的同步和查询耗时
+ *
+ * 用法: BroadphaseBenchmark [录制文件] [复制倍数] [轮数]
+ */
+public class BroadphaseBenchmark {
+    private static final float CONTACT_RADIUS = 15.0f;
+    private static final float BLAST_RADIUS = 200.0f;
+
+    // 单个关键帧：实体 ID 与位置、半径
+    private static class Frame {
+        final List<String> ids = new ArrayList<>();
+        final List<float[]> shapes = new ArrayList<>();
+    }
+
+    public static void main(String[] args) throws Exception {
+        String path = args.length > 0 ? args[0] : latestRecording();
+        int scale = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        if (path == null) {
+            System.err.println("没有找到录制文件，请先运行一局游戏或指定文件路径");
+            return;
+        }
+
+        List<Frame> frames = load(path, scale);
+        System.out.println("录制文件: " + path + "，关键帧 " + frames.size() + "，复制倍数 " + scale);
+
+        for (BroadphaseType type : BroadphaseType.values()) {
+            run(type, frames, Math.max(1, rounds / 4)); // 预热
+            long[] result = run(type, frames, rounds);
+            double frameCount = (double) frames.size() * rounds;
+            System.out.printf("%-12s 同步 %8.3f ms/帧  查询 %8.3f ms/帧  候选 %d%n",
+                    type, result[0] / frameCount / 1e6, result[1] / frameCount / 1e6, result[2]);
+        }
+    }
+
+    private static long[] run(BroadphaseType type, List<Frame> frames, int rounds) {
+        long syncNanos = 0;
+        long queryNanos = 0;
+        long candidates = 0;
+        int[] out = new int[4096];
+
+        for (int round = 0; round < rounds; round++) {
+            Broadphase broadphase = BroadphaseFactory.createBroadphase(type);
+            Map<String, Integer> proxies = new HashMap<>();
+            for (int f = 0; f < frames.size(); f++) {
+                Frame frame = frames.get(f);
+
+                long t0 = System.nanoTime();
+                Map<String, Integer> next = new HashMap<>(proxies.size() * 2 + 16);
+                for (int i = 0; i < frame.ids.size(); i++) {
+                    float[] s = frame.shapes.get(i);
+                    Integer proxy = proxies.remove(frame.ids.get(i));
+                    if (proxy == null) {
+                        proxy = broadphase.createProxy(s[0], s[1], s[2], frame.ids.get(i));
+                    } else {
+                        broadphase.moveProxy(proxy, s[0], s[1], s[2]);
+                    }
+                    next.put(frame.ids.get(i), proxy);
+                }
+                for (Integer stale : proxies.values()) {
+                    broadphase.destroyProxy(stale);
+                }
+                proxies = next;
+                broadphase.update();
+                long t1 = System.nanoTime();
+
+                // 每个实体做一次接触查询，每 30 帧做一次炸弹范围查询
+                for (float[] s : frame.shapes) {
+                    candidates += broadphase.query(s[0], s[1], s[2] + CONTACT_RADIUS, out);
+                }
+                if (f % 30 == 0 && !frame.shapes.isEmpty()) {
+                    float[] s = frame.shapes.get(0);
+                    candidates += broadphase.query(s[0], s[1], BLAST_RADIUS, out);
+                }
+                long t2 = System.nanoTime();
+
+                syncNanos += t1 - t0;
+                queryNanos += t2 - t1;
+            }
+        }
+        return new long[] { syncNanos, queryNanos, candidates };
+    }
+
+    private static List<Frame> load(String path, int scale) throws Exception {
+        RecordingStorage storage = new FileRecordingStorage();
+        List<Frame> frames = new ArrayList<>();
+        for (String line : storage.readLines(path)) {
+            if (!"keyframe".equals(RecordingJson.stripQuotes(RecordingJson.field(line, "type")))) continue;
+            int idx = line.indexOf("\"entities\"");
+            if (idx < 0) continue;
+            String arr = RecordingJson.extractArray(line, line.indexOf('[', idx));
+
+            Frame frame = new Frame();
+            for (String p : RecordingJson.splitTopLevel(arr)) {
+                String id = RecordingJson.stripQuotes(RecordingJson.field(p, "id"));
+                float x = (float) RecordingJson.parseDouble(RecordingJson.field(p, "x"));
+                float y = (float) RecordingJson.parseDouble(RecordingJson.field(p, "y"));
+                float w = (float) RecordingJson.parseDouble(RecordingJson.field(p, "w"));
+                float h = (float) RecordingJson.parseDouble(RecordingJson.field(p, "h"));
+                String rt = RecordingJson.stripQuotes(RecordingJson.field(p, "rt"));
+                float radius = "CUSTOM".equals(rt) ? 15.0f : Math.max(w, h) * 0.5f;
+
+                // 复制实体以放大负载，副本按固定偏移散布，保持各帧之间的运动轨迹
+                for (int k = 0; k < scale; k++) {
+                    Random offset = new Random(k * 31L + 7);
+                    float ox = k == 0 ? 0 : (offset.nextFloat() - 0.5f) * 4000;
+                    float oy = k == 0 ? 0 : (offset.nextFloat() - 0.5f) * 3000;
+                    frame.ids.add(id + "#" + k);
+                    frame.shapes.add(new float[] { x + ox, y + oy, radius });
+                }
+            }
+            frames.add(frame);
+        }
+        return frames;
+    }
+
+    private static String latestRecording() {
+        List<File> files = new FileRecordingStorage().listRecordings();
+        return files.isEmpty() ? null : files.get(0).getPath();
+    }
+}
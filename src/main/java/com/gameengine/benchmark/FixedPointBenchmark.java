@@ -0,0 +1,106 @@
+package com.gameengine.benchmark;
+
+import com.gameengine.collision.CollisionWorld;
+import com.gameengine.collision.ContactSolver;
+import com.gameengine.components.ColliderComponent;
+import com.gameengine.components.PhysicsComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.core.FrameArena;
+import com.gameengine.core.GameObject;
+import com.gameengine.core.PhysicsSystem;
+import com.gameengine.math.Vector2;
+import com.gameengine.scene.Scene;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 定点物理基准测试
+ * 同一批物体分别用浮点和定点模式模拟（积分 + 接触检测 + 接触求解），对比每帧耗时，
+ * 并检查定点模式在重复运行、串行/并行检测下的结果校验和是否一致
+ *
+ * 用法: FixedPointBenchmark [物体数量] [帧数]
+ */
+public class FixedPointBenchmark {
+    private static final float DT = 1.0f / 60.0f;
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int frames = args.length > 1 ? Integer.parseInt(args[1]) : 600;
+        System.out.println("物体 " + count + "，帧数 " + frames + "，步长 1/60 秒");
+
+        // 预热
+        run(Scene.PhysicsMode.FLOAT, count, frames / 4, false);
+        run(Scene.PhysicsMode.FIXED_POINT, count, frames / 4, false);
+
+        long[] floatResult = run(Scene.PhysicsMode.FLOAT, count, frames, false);
+        long[] fixedResult = run(Scene.PhysicsMode.FIXED_POINT, count, frames, false);
+        long[] fixedAgain = run(Scene.PhysicsMode.FIXED_POINT, count, frames, false);
+        long[] fixedParallel = run(Scene.PhysicsMode.FIXED_POINT, count, frames, true);
+
+        report("FLOAT", floatResult, frames);
+        report("FIXED_POINT", fixedResult, frames);
+        System.out.printf("定点开销 %.2fx%n", (double) fixedResult[0] / floatResult[0]);
+        System.out.println("定点重复运行一致: " + (fixedResult[1] == fixedAgain[1]));
+        System.out.println("定点并行检测一致: " + (fixedResult[1] == fixedParallel[1]));
+    }
+
+    private static long[] run(Scene.PhysicsMode mode, int count, int frames, boolean parallel) {
+        Scene scene = new Scene("FixedPointBenchmark");
+        scene.setPhysicsMode(mode);
+        Random random = new Random(42);
+        // 物体密度与 GameScene 相近：每个物体约占 100x100 像素
+        int side = (int) Math.sqrt(count) * 100;
+        for (int i = 0; i < count; i++) {
+            GameObject obj = new GameObject("Body");
+            obj.addComponent(new TransformComponent(new Vector2(random.nextFloat() * side, random.nextFloat() * side)));
+            PhysicsComponent physics = obj.addComponent(new PhysicsComponent(0.5f + random.nextFloat()));
+            physics.setVelocity((random.nextFloat() - 0.5f) * 300, (random.nextFloat() - 0.5f) * 300);
+            physics.setFriction(0.98f);
+            physics.setRestitution(0.8f);
+            obj.addComponent(new ColliderComponent(10, 1));
+            scene.addGameObject(obj);
+        }
+        scene.update(0);
+
+        PhysicsSystem physicsSystem = new PhysicsSystem(scene, side, side);
+        CollisionWorld collisionWorld = new CollisionWorld(scene);
+        collisionWorld.setParallel(parallel);
+        physicsSystem.setCollisionWorld(collisionWorld);
+        ContactSolver solver = new ContactSolver();
+
+        long start = System.nanoTime();
+        for (int f = 0; f < frames; f++) {
+            physicsSystem.update(DT);
+            collisionWorld.update();
+            solver.solve(collisionWorld.getContacts());
+            // 与 GameEngine 一样每帧回收场景查询借出的列表，否则会一直占满 FrameArena 的列表池
+            FrameArena.current().reset();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        physicsSystem.cleanup();
+        long checksum = checksum(scene);
+        FrameArena.current().reset();
+        return new long[] { elapsed, checksum };
+    }
+
+    // 对所有位置与速度的二进制表示做哈希，任何一位不同都会改变结果
+    private static long checksum(Scene scene) {
+        long hash = 1125899906842597L;
+        List<PhysicsComponent> bodies = scene.getComponents(PhysicsComponent.class);
+        for (PhysicsComponent physics : bodies) {
+            Vector2 position = physics.getOwner().getComponent(TransformComponent.class).getPosition();
+            Vector2 velocity = physics.getVelocity();
+            hash = 31 * hash + Float.floatToIntBits(position.x);
+            hash = 31 * hash + Float.floatToIntBits(position.y);
+            hash = 31 * hash + Float.floatToIntBits(velocity.x);
+            hash = 31 * hash + Float.floatToIntBits(velocity.y);
+        }
+        return hash;
+    }
+
+    private static void report(String name, long[] result, int frames) {
+        System.out.printf("%-12s %8.3f ms/帧  校验和 %016x%n", name, result[0] / (double) frames / 1e6, result[1]);
+    }
+}
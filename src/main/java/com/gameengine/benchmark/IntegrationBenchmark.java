@@ -0,0 +1,82 @@
+package com.gameengine.benchmark;
+
+import com.gameengine.core.IntegrationKernel;
+import com.gameengine.core.IntegrationKernelFactory;
+import com.gameengine.core.WorldBounds;
+
+import java.util.Random;
+
+/**
+ * 积分内核基准测试
+ * 对比标量内核与向量内核在同一组数组上的积分吞吐量，每帧再由同一内核经 WorldBounds 做边界反弹（与 PhysicsSystem 相同）
+ *
+ * 用法: IntegrationBenchmark [物体数量] [轮数]
+ * 向量内核需要以 --add-modules jdk.incubator.vector 运行，否则只测标量内核
+ */
+public class IntegrationBenchmark {
+    private static final float DT = 1.0f / 60.0f;
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+
+        IntegrationKernel scalar = IntegrationKernelFactory.createScalarKernel();
+        IntegrationKernel best = IntegrationKernelFactory.createKernel();
+        System.out.println("物体 " + count + "，轮数 " + rounds + "，向量模块"
+                + (IntegrationKernelFactory.isVectorAvailable() ? "已加载" : "未加载"));
+
+        double scalarNanos = run(scalar, count, rounds);
+        report(scalar, count, scalarNanos, scalarNanos);
+        if (best.getLaneCount() > 1) {
+            double vectorNanos = run(best, count, rounds);
+            report(best, count, vectorNanos, scalarNanos);
+        }
+    }
+
+    private static double run(IntegrationKernel kernel, int count, int rounds) {
+        Random random = new Random(42);
+        float[] px = new float[count], py = new float[count];
+        float[] vx = new float[count], vy = new float[count];
+        float[] ax = new float[count], ay = new float[count];
+        float[] h = new float[count], damping = new float[count];
+        int[] layers = new int[count], flags = new int[count];
+        WorldBounds bounds = new WorldBounds(0, 0, 785, 585);
+        for (int i = 0; i < count; i++) {
+            px[i] = random.nextFloat() * 800;
+            py[i] = random.nextFloat() * 600;
+            vx[i] = (random.nextFloat() - 0.5f) * 400;
+            vy[i] = (random.nextFloat() - 0.5f) * 400;
+            ay[i] = random.nextBoolean() ? 9.8f : 0;
+            h[i] = DT;
+            damping[i] = 0.98f;
+        }
+
+        // 预热，让 JIT 完成编译
+        for (int r = 0; r < Math.max(200, rounds / 5); r++) {
+            frame(kernel, bounds, px, py, vx, vy, ax, ay, h, damping, layers, flags, count);
+        }
+        long start = System.nanoTime();
+        for (int r = 0; r < rounds; r++) {
+            frame(kernel, bounds, px, py, vx, vy, ax, ay, h, damping, layers, flags, count);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        // 防止结果被优化掉
+        float checksum = 0;
+        for (int i = 0; i < count; i++) checksum += px[i] + py[i];
+        if (Float.isNaN(checksum)) System.out.println("checksum NaN");
+        return (double) elapsed / rounds;
+    }
+
+    private static void frame(IntegrationKernel kernel, WorldBounds bounds, float[] px, float[] py, float[] vx, float[] vy,
+                              float[] ax, float[] ay, float[] h, float[] damping, int[] layers, int[] flags, int count) {
+        kernel.integrate(px, py, vx, vy, ax, ay, h, damping, 0, count);
+        bounds.apply(px, py, vx, vy, layers, flags, count, kernel);
+    }
+
+    private static void report(IntegrationKernel kernel, int count, double nanosPerFrame, double baseline) {
+        System.out.printf("%-10s 通道 %2d  %8.3f ms/帧  %6.2f ns/物体  加速比 %.2fx%n",
+                kernel.getName(), kernel.getLaneCount(), nanosPerFrame / 1e6,
+                nanosPerFrame / count, baseline / nanosPerFrame);
+    }
+}
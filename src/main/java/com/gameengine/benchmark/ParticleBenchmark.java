@@ -0,0 +1,70 @@
+package com.gameengine.benchmark;
+
+import com.gameengine.core.ParticleSystem;
+import com.gameengine.math.Vector2;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 粒子并行更新基准测试
+ * 用 1 到 CPU 核数个线程的 ForkJoinPool 分别更新同样的粒子，给出每帧耗时和相对单线程的加速比，
+ * 并检查相同种子下各线程数的最终状态校验和是否一致
+ *
+ * 用法: ParticleBenchmark [粒子数] [帧数]
+ */
+public class ParticleBenchmark {
+    private static final long SEED = 42L;
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        int frames = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.println("粒子 " + count + "，帧数 " + frames + "，CPU 核数 " + cores);
+
+        double baseline = 0;
+        long expected = 0;
+        for (int parallelism = 1; parallelism <= cores; parallelism++) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                run(pool, count, frames / 4 + 1);
+                ParticleSystem system = create(pool, count);
+                long start = System.nanoTime();
+                for (int f = 0; f < frames; f++) {
+                    system.update(1 / 60f);
+                    // 补充死亡的粒子，保持规模
+                    system.burst(count - system.getParticleCount());
+                }
+                double ms = (System.nanoTime() - start) / 1e6 / frames;
+                long checksum = system.checksum();
+                if (parallelism == 1) {
+                    baseline = ms;
+                    expected = checksum;
+                }
+                System.out.printf("线程 %2d  %8.3f ms/帧  加速比 %.2fx  校验和%s%n",
+                        parallelism, ms, baseline / ms, checksum == expected ? "一致" : "不一致");
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    private static ParticleSystem create(ForkJoinPool pool, int count) {
+        ParticleSystem.Config config = ParticleSystem.Config.defaultPlayer();
+        config.capacity = count;
+        config.initialCount = 0;
+        ParticleSystem system = new ParticleSystem(null, new Vector2(400, 300), config);
+        system.setPool(pool);
+        system.setSeed(SEED);
+        system.setActive(false);
+        system.burst(count);
+        return system;
+    }
+
+    private static void run(ForkJoinPool pool, int count, int frames) {
+        ParticleSystem system = create(pool, count);
+        for (int f = 0; f < frames; f++) {
+            system.update(1 / 60f);
+            system.burst(count - system.getParticleCount());
+        }
+    }
+}
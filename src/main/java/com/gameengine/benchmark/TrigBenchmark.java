@@ -0,0 +1,136 @@
+package com.gameengine.benchmark;
+
+import com.gameengine.math.FastTrig;
+
+import java.util.Random;
+
+/**
+ * 三角函数基准测试
+ * 对比圆形顶点生成（每段现算 cos/sin 与缓存单位圆）和粒子随机方向（Math 与查表）的耗时，
+ * 并给出查表的最大误差
+ *
+ * 用法: TrigBenchmark [每帧圆形数] [分段数] [帧数]
+ */
+public class TrigBenchmark {
+    public static void main(String[] args) {
+        int circles = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int segments = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        int frames = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        System.out.println("每帧圆形 " + circles + "，分段 " + segments + "，帧数 " + frames);
+
+        // 顶点写入与 GPURenderer.drawCircle 相同布局的数组，模拟提交前的 CPU 开销
+        float[] vertices = new float[circles * (segments + 2) * 2];
+        Random random = new Random(42);
+        float[] xs = new float[circles], ys = new float[circles], radii = new float[circles];
+        for (int i = 0; i < circles; i++) {
+            xs[i] = random.nextFloat() * 800;
+            ys[i] = random.nextFloat() * 600;
+            radii[i] = 2 + random.nextFloat() * 10;
+        }
+
+        for (int w = 0; w < 3; w++) {
+            circlesMath(xs, ys, radii, segments, vertices, frames / 4 + 1);
+            circlesCached(xs, ys, radii, segments, vertices, frames / 4 + 1);
+        }
+        double math = circlesMath(xs, ys, radii, segments, vertices, frames);
+        double cached = circlesCached(xs, ys, radii, segments, vertices, frames);
+        System.out.printf("圆形 Math.cos/sin  %8.3f ms/帧%n", math / 1e6);
+        System.out.printf("圆形 单位圆缓存    %8.3f ms/帧  加速比 %.2fx%n", cached / 1e6, math / cached);
+
+        int directions = circles * 10;
+        float[] out = new float[directions * 2];
+        for (int w = 0; w < 3; w++) {
+            directionsMath(out, directions, frames / 4 + 1);
+            directionsTable(out, directions, frames / 4 + 1);
+        }
+        double dirMath = directionsMath(out, directions, frames);
+        double dirTable = directionsTable(out, directions, frames);
+        System.out.printf("方向 %d 个 Math    %8.3f ms/帧%n", directions, dirMath / 1e6);
+        System.out.printf("方向 %d 个 查表    %8.3f ms/帧  加速比 %.2fx%n", directions, dirTable / 1e6, dirMath / dirTable);
+
+        double maxError = 0;
+        for (int i = 0; i < 1_000_000; i++) {
+            float turns = i / 1_000_000f;
+            maxError = Math.max(maxError, Math.abs(FastTrig.sinTurns(turns) - Math.sin(turns * Math.PI * 2)));
+            maxError = Math.max(maxError, Math.abs(FastTrig.cosTurns(turns) - Math.cos(turns * Math.PI * 2)));
+        }
+        System.out.printf("查表最大误差 %.2e%n", maxError);
+    }
+
+    private static double circlesMath(float[] xs, float[] ys, float[] radii, int segments, float[] vertices, int frames) {
+        long start = System.nanoTime();
+        for (int f = 0; f < frames; f++) {
+            int v = 0;
+            for (int c = 0; c < xs.length; c++) {
+                float x = xs[c], y = ys[c], radius = radii[c];
+                vertices[v++] = x;
+                vertices[v++] = y;
+                for (int i = 0; i <= segments; i++) {
+                    float angle = (float) (i * 2.0 * Math.PI / segments);
+                    vertices[v++] = x + (float) (radius * Math.cos(angle));
+                    vertices[v++] = y + (float) (radius * Math.sin(angle));
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        consume(vertices);
+        return (double) elapsed / frames;
+    }
+
+    private static double circlesCached(float[] xs, float[] ys, float[] radii, int segments, float[] vertices, int frames) {
+        long start = System.nanoTime();
+        for (int f = 0; f < frames; f++) {
+            int v = 0;
+            for (int c = 0; c < xs.length; c++) {
+                float x = xs[c], y = ys[c], radius = radii[c];
+                float[] circle = FastTrig.unitCircle(segments);
+                vertices[v++] = x;
+                vertices[v++] = y;
+                for (int i = 0; i < circle.length; i += 2) {
+                    vertices[v++] = x + radius * circle[i];
+                    vertices[v++] = y + radius * circle[i + 1];
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        consume(vertices);
+        return (double) elapsed / frames;
+    }
+
+    private static double directionsMath(float[] out, int count, int frames) {
+        Random random = new Random(7);
+        long start = System.nanoTime();
+        for (int f = 0; f < frames; f++) {
+            for (int i = 0; i < count; i++) {
+                float angle = (float) (random.nextFloat() * 2.0 * Math.PI);
+                out[i * 2] = (float) Math.cos(angle);
+                out[i * 2 + 1] = (float) Math.sin(angle);
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        consume(out);
+        return (double) elapsed / frames;
+    }
+
+    private static double directionsTable(float[] out, int count, int frames) {
+        Random random = new Random(7);
+        long start = System.nanoTime();
+        for (int f = 0; f < frames; f++) {
+            for (int i = 0; i < count; i++) {
+                float turns = random.nextFloat();
+                out[i * 2] = FastTrig.cosTurns(turns);
+                out[i * 2 + 1] = FastTrig.sinTurns(turns);
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        consume(out);
+        return (double) elapsed / frames;
+    }
+
+    // 防止结果被优化掉
+    private static void consume(float[] values) {
+        float sum = 0;
+        for (int i = 0; i < values.length; i += 97) sum += values[i];
+        if (Float.isNaN(sum)) System.out.println("NaN");
+    }
+}
@@ -0,0 +1,57 @@
+package com.gameengine.collision;
+
+/**
+ * 宽相位抽象接口
+ * 代理以中心点加半径描述，查询返回包围盒相交的候选代理 ID
+ */
+public interface Broadphase {
+    /**
+     * 创建代理
+     * @param x 中心 x
+     * @param y 中心 y
+     * @param radius 半径（包围盒半边长）
+     * @param userData 关联的用户数据
+     * @return 代理 ID
+     */
+    int createProxy(float x, float y, float radius, Object userData);
+
+    /**
+     * 移动代理
+     */
+    void moveProxy(int proxyId, float x, float y, float radius);
+
+    /**
+     * 销毁代理
+     */
+    void destroyProxy(int proxyId);
+
+    /**
+     * 提交本帧的代理变化（每帧查询前调用）
+     */
+    void update();
+
+    /**
+     * 查询与轴对齐矩形相交的代理
+     * update() 之后、下一次修改代理之前，可以从多个线程同时查询
+     * @param out 结果缓冲区，超出容量的结果被丢弃
+     * @return 写入 out 的代理数量
+     */
+    int query(float minX, float minY, float maxX, float maxY, int[] out);
+
+    /**
+     * 查询与圆形范围相交的代理（仅做包围盒粗测）
+     */
+    default int query(float x, float y, float radius, int[] out) {
+        return query(x - radius, y - radius, x + radius, y + radius, out);
+    }
+
+    float getX(int proxyId);
+
+    float getY(int proxyId);
+
+    float getRadius(int proxyId);
+
+    Object getUserData(int proxyId);
+
+    int getProxyCount();
+}
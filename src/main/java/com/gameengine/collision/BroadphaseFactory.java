@@ -0,0 +1,13 @@
+package com.gameengine.collision;
+
+public class BroadphaseFactory {
+    public static Broadphase createBroadphase(BroadphaseType type) {
+        if (type == BroadphaseType.SPATIAL_HASH) {
+            return new SpatialHashGrid(32.0f);
+        }
+        if (type == BroadphaseType.AABB_TREE) {
+            return new DynamicAabbTree(4.0f);
+        }
+        throw new IllegalArgumentException("不支持的宽相位类型: " + type);
+    }
+}
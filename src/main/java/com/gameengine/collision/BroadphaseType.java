@@ -0,0 +1,11 @@
+package com.gameengine.collision;
+
+/**
+ * 宽相位实现类型
+ */
+public enum BroadphaseType {
+    /** 均匀空间哈希网格，适合尺寸接近的大量物体 */
+    SPATIAL_HASH,
+    /** 动态 AABB 树，适合尺寸差异大的物体 */
+    AABB_TREE
+}
@@ -0,0 +1,661 @@
+package com.gameengine.collision;
+
+import com.gameengine.components.ColliderComponent;
+import com.gameengine.components.PhysicsComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.core.GameObject;
+import com.gameengine.math.FixedPoint;
+import com.gameengine.math.Vector2;
+import com.gameengine.scene.Scene;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 碰撞世界
+ * 每帧从场景的 TransformComponent 同步位置到宽相位，每个碰撞层使用独立的宽相位，
+ * 所有碰撞查询共用同一份数据，窄相位只比较距离平方
+ *
+ * 同步之后按碰撞层掩码做一次成对检测，生成本帧的接触列表，
+ * 再与上一帧比较，把开始/持续/结束的接触分批交给监听器
+ * 物体较多时成对检测按区间并行，各段结果按固定顺序合并，监听器始终在调用线程上执行
+ * 场景为定点物理模式时，重叠判断、法线、穿透深度和快速物体的扫掠检测都用定点数计算
+ */
+public class CollisionWorld {
+    /** 匹配所有碰撞层的掩码 */
+    public static final int ALL_LAYERS = -1;
+
+    private final Scene scene;
+    private final BroadphaseType[] layerTypes;
+    private final Broadphase[] layers;
+    private final Map<GameObject, Body> bodies;
+    // 与 bodies 内容相同，按登记顺序存放，逐帧清理时下标遍历，不创建迭代器
+    private final List<Body> bodyList;
+    private final List<Body> contactBodies;
+    private final List<ContactListener> listeners;
+    private int frame;
+    private int nextBodyId;
+    private int sleepingBodies;
+    private int[] candidates;
+    private float lastTimeOfImpact;
+    private final Vector2 scratchPosition = new Vector2();
+    // 场景处于定点物理模式时，窄相位按 16.16 整数比较
+    private boolean fixed;
+
+    // 接触：本帧与上一帧各一份，按接触键排序后比较得出事件
+    private ContactSlice current;
+    private ContactSlice previous;
+    private final ContactBuffer began;
+    private final ContactBuffer stayed;
+    private final ContactBuffer ended;
+
+    // 并行窄相位：物体较多时按区间分段检测，每段写入自己的缓冲区，再按分段顺序合并
+    private static final int PARALLEL_THRESHOLD = 1024;
+    private static final long WORKER_IDLE_SECONDS = 10;
+    private final int threadCount;
+    private boolean parallel;
+    private ContactSlice[] slices;
+    private ExecutorService executor;
+
+    // 已登记物体在宽相位中的位置，同时记录上一帧位置供连续碰撞检测使用
+    private static class Body {
+        final GameObject object;
+        final int id;
+        int layer;
+        int mask;
+        boolean fast;
+        int proxy;
+        int stamp;
+        float x, y;
+        float prevX, prevY;
+        float radius;
+        // 定点模式下的位置、上一帧位置与半径（16.16）
+        int fx, fy, fr;
+        int fprevX, fprevY;
+
+        Body(GameObject object, int id) {
+            this.object = object;
+            this.id = id;
+        }
+    }
+
+    // 一段接触及其接触键（A 的 ID 在高 32 位），带独立的查询缓冲区，可在工作线程中填充
+    private static class ContactSlice {
+        final ContactBuffer contacts = new ContactBuffer();
+        long[] keys = new long[64];
+        int[] order = new int[64];
+        int[] candidates = new int[256];
+
+        void add(Body a, Body b, boolean fixed) {
+            if (fixed) {
+                addFixed(a, b);
+                return;
+            }
+            float dx = b.x - a.x;
+            float dy = b.y - a.y;
+            float dist = (float) Math.sqrt(dx * dx + dy * dy);
+            float nx = dist > 0 ? dx / dist : 1;
+            float ny = dist > 0 ? dy / dist : 0;
+            float penetration = Math.max(0, a.radius + b.radius - dist);
+            int index = contacts.add(a.object, a.layer, b.object, b.layer, nx, ny, penetration);
+            setKey(index, ((long) a.id << 32) | b.id);
+        }
+
+        // 定点模式：法线和穿透深度全部由整数算出，只在写入缓冲区时转换
+        private void addFixed(Body a, Body b) {
+            int dx = b.fx - a.fx;
+            int dy = b.fy - a.fy;
+            int dist = FixedPoint.length(dx, dy);
+            float nx = dist > 0 ? FixedPoint.toFloat(FixedPoint.div(dx, dist)) : 1;
+            float ny = dist > 0 ? FixedPoint.toFloat(FixedPoint.div(dy, dist)) : 0;
+            float penetration = FixedPoint.toFloat(Math.max(0, a.fr + b.fr - dist));
+            int index = contacts.add(a.object, a.layer, b.object, b.layer, nx, ny, penetration);
+            setKey(index, ((long) a.id << 32) | b.id);
+        }
+
+        void addAll(ContactSlice other) {
+            for (int i = 0; i < other.contacts.size(); i++) {
+                setKey(contacts.addFrom(other.contacts, i), other.keys[i]);
+            }
+        }
+
+        private void setKey(int index, long key) {
+            if (index == keys.length) {
+                keys = Arrays.copyOf(keys, index * 2);
+                order = Arrays.copyOf(order, index * 2);
+            }
+            keys[index] = key;
+            order[index] = index;
+        }
+    }
+
+    public CollisionWorld(Scene scene) {
+        this(scene, BroadphaseType.SPATIAL_HASH);
+    }
+
+    public CollisionWorld(Scene scene, BroadphaseType defaultType) {
+        this.scene = scene;
+        this.layerTypes = new BroadphaseType[ColliderComponent.MAX_LAYERS];
+        this.layers = new Broadphase[ColliderComponent.MAX_LAYERS];
+        this.bodies = new IdentityHashMap<>();
+        this.bodyList = new ArrayList<>();
+        this.contactBodies = new ArrayList<>();
+        this.listeners = new ArrayList<>();
+        this.frame = 0;
+        this.nextBodyId = 0;
+        this.candidates = new int[256];
+        this.lastTimeOfImpact = -1;
+        this.current = new ContactSlice();
+        this.previous = new ContactSlice();
+        this.began = new ContactBuffer();
+        this.stayed = new ContactBuffer();
+        this.ended = new ContactBuffer();
+        this.threadCount = Math.max(2, Runtime.getRuntime().availableProcessors() - 1);
+        this.parallel = true;
+        this.slices = new ContactSlice[0];
+        Arrays.fill(layerTypes, defaultType);
+    }
+
+    /**
+     * 添加接触监听器
+     */
+    public void addContactListener(ContactListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * 移除接触监听器
+     */
+    public void removeContactListener(ContactListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * 为指定碰撞层选择宽相位实现（需在该层有物体登记前设置）
+     */
+    public void setBroadphase(int layer, BroadphaseType type) {
+        if (layers[layer] != null && layers[layer].getProxyCount() > 0) {
+            throw new IllegalStateException("layer " + layer + " already has bodies");
+        }
+        layerTypes[layer] = type;
+        layers[layer] = null;
+    }
+
+    /**
+     * 同步场景对象到宽相位，生成接触并派发事件（每帧调用一次）
+     */
+    public void update() {
+        sync();
+        findContacts();
+        dispatchContacts();
+    }
+
+    private void sync() {
+        frame++;
+        fixed = scene.getPhysicsMode() == Scene.PhysicsMode.FIXED_POINT;
+        sleepingBodies = 0;
+        contactBodies.clear();
+        // 下标遍历：帧内列表的迭代器在逃逸分析失效时会逐帧分配
+        List<GameObject> objects = scene.getGameObjects();
+        for (int n = 0; n < objects.size(); n++) {
+            GameObject obj = objects.get(n);
+            if (!obj.isActive()) continue;
+            TransformComponent transform = obj.getComponent(TransformComponent.class);
+            if (transform == null) continue;
+
+            ColliderComponent collider = obj.getComponent(ColliderComponent.class);
+            int layer = collider != null ? collider.getLayer() : ColliderComponent.DEFAULT_LAYER;
+            float radius = collider != null ? collider.getRadius() : 0;
+            int mask = collider != null ? collider.getMask() : 0;
+            Vector2 pos = transform.getPosition(scratchPosition);
+
+            Body body = bodies.get(obj);
+            if (body != null && body.layer != layer) {
+                layers[body.layer].destroyProxy(body.proxy);
+                // 旧记录留在 bodyList 中，清理时按 proxy = -1 直接丢弃
+                body.proxy = -1;
+                bodies.remove(obj);
+                body = null;
+            }
+            if (body == null) {
+                body = new Body(obj, nextBodyId++);
+                body.layer = layer;
+                body.x = pos.x;
+                body.y = pos.y;
+                body.proxy = getLayer(layer).createProxy(pos.x, pos.y, radius, body);
+                bodies.put(obj, body);
+                bodyList.add(body);
+            } else if (pos.x != body.x || pos.y != body.y || radius != body.radius) {
+                // 静止（通常是休眠）的物体不移动代理，全部静止时网格也不需要重建
+                layers[layer].moveProxy(body.proxy, pos.x, pos.y, radius);
+            }
+            if (isSleeping(obj)) {
+                sleepingBodies++;
+            }
+            body.prevX = body.x;
+            body.prevY = body.y;
+            body.x = pos.x;
+            body.y = pos.y;
+            body.radius = radius;
+            if (fixed) {
+                body.fx = FixedPoint.fromFloat(pos.x);
+                body.fy = FixedPoint.fromFloat(pos.y);
+                body.fr = FixedPoint.fromFloat(radius);
+                body.fprevX = FixedPoint.fromFloat(body.prevX);
+                body.fprevY = FixedPoint.fromFloat(body.prevY);
+            }
+            body.mask = mask;
+            body.fast = collider != null && collider.isFast();
+            body.stamp = frame;
+            if (mask != 0) {
+                contactBodies.add(body);
+            }
+        }
+
+        // 移除本帧未出现的对象（已销毁或被移出场景），保留的记录原地前移
+        int kept = 0;
+        for (int n = 0; n < bodyList.size(); n++) {
+            Body body = bodyList.get(n);
+            if (body.stamp == frame) {
+                bodyList.set(kept++, body);
+            } else if (body.proxy >= 0) {
+                layers[body.layer].destroyProxy(body.proxy);
+                bodies.remove(body.object);
+            }
+        }
+        for (int n = bodyList.size() - 1; n >= kept; n--) {
+            bodyList.remove(n);
+        }
+
+        for (Broadphase broadphase : layers) {
+            if (broadphase != null) {
+                broadphase.update();
+            }
+        }
+    }
+
+    /**
+     * 成对检测：每对接触只由一方产生
+     * 普通物体只查询不低于自身的层，快速物体查询掩码内所有层并负责自己参与的所有接触
+     */
+    private void findContacts() {
+        ContactSlice swap = previous;
+        previous = current;
+        current = swap;
+        current.contacts.clear();
+
+        int count = contactBodies.size();
+        if (!parallel || count < PARALLEL_THRESHOLD) {
+            detect(current, 0, count);
+            return;
+        }
+
+        // 分段数多于线程数，让各线程负载更均匀；合并顺序只取决于分段，与线程调度无关
+        int sliceCount = threadCount * 4;
+        if (slices.length != sliceCount) {
+            slices = new ContactSlice[sliceCount];
+            for (int i = 0; i < sliceCount; i++) {
+                slices[i] = new ContactSlice();
+            }
+        }
+        int chunk = (count + sliceCount - 1) / sliceCount;
+        ExecutorService pool = getExecutor();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < sliceCount; i++) {
+            final ContactSlice slice = slices[i];
+            final int from = Math.min(count, i * chunk);
+            final int to = Math.min(count, from + chunk);
+            slice.contacts.clear();
+            if (from < to) {
+                futures.add(pool.submit(() -> detect(slice, from, to)));
+            }
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+        for (ContactSlice slice : slices) {
+            current.addAll(slice);
+            slice.contacts.clear();
+        }
+    }
+
+    // 检测 contactBodies[from, to) 发起的接触，只读宽相位和物体数据，结果写入 slice
+    private void detect(ContactSlice slice, int from, int to) {
+        for (int n = from; n < to; n++) {
+            Body a = contactBodies.get(n);
+            // 快速物体用整帧的扫掠范围查询
+            float x0 = a.fast ? a.prevX : a.x;
+            float y0 = a.fast ? a.prevY : a.y;
+            float minX = Math.min(x0, a.x) - a.radius, minY = Math.min(y0, a.y) - a.radius;
+            float maxX = Math.max(x0, a.x) + a.radius, maxY = Math.max(y0, a.y) + a.radius;
+            for (int layer = a.fast ? 0 : a.layer; layer < layers.length; layer++) {
+                Broadphase broadphase = layers[layer];
+                if (broadphase == null || (a.mask & (1 << layer)) == 0) continue;
+                int count = broadphase.query(minX, minY, maxX, maxY, slice.candidates);
+                while (count == slice.candidates.length) {
+                    slice.candidates = new int[slice.candidates.length * 2];
+                    count = broadphase.query(minX, minY, maxX, maxY, slice.candidates);
+                }
+                for (int i = 0; i < count; i++) {
+                    Body b = (Body) broadphase.getUserData(slice.candidates[i]);
+                    if (b == a || (b.mask & (1 << a.layer)) == 0) continue;
+                    if (a.fast ? b.fast && !precedes(a, b) : b.fast || !precedes(a, b)) continue;
+                    if (a.fast || b.fast) {
+                        if ((fixed ? timeOfImpactFixed(a, b) : timeOfImpact(a, b)) < 0) continue;
+                    } else if (fixed) {
+                        long dx = b.fx - a.fx;
+                        long dy = b.fy - a.fy;
+                        long r = a.fr + b.fr;
+                        if (dx * dx + dy * dy > r * r) continue;
+                    } else {
+                        float dx = b.x - a.x;
+                        float dy = b.y - a.y;
+                        float r = a.radius + b.radius;
+                        if (dx * dx + dy * dy > r * r) continue;
+                    }
+                    if (precedes(a, b)) {
+                        slice.add(a, b, fixed);
+                    } else {
+                        slice.add(b, a, fixed);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 获取宽相位代理对应的场景对象（供同包的查询服务使用）
+     */
+    static GameObject objectOf(Broadphase broadphase, int proxy) {
+        return ((Body) broadphase.getUserData(proxy)).object;
+    }
+
+    private static boolean isSleeping(GameObject obj) {
+        PhysicsComponent physics = obj.getComponent(PhysicsComponent.class);
+        return physics != null && physics.isSleeping();
+    }
+
+    // 接触双方的固定顺序：先按层，再按登记顺序
+    private static boolean precedes(Body a, Body b) {
+        return a.layer < b.layer || (a.layer == b.layer && a.id < b.id);
+    }
+
+    /**
+     * 对比本帧与上一帧的接触键，分出开始/持续/结束三批并通知监听器
+     */
+    private void dispatchContacts() {
+        ContactBuffer contacts = current.contacts;
+        ContactBuffer previousContacts = previous.contacts;
+        long[] keys = current.keys;
+        long[] previousKeys = previous.keys;
+        int count = contacts.size();
+        int previousCount = previousContacts.size();
+        sortKeys(keys, current.order, 0, count - 1);
+
+        began.clear();
+        stayed.clear();
+        ended.clear();
+        int i = 0, j = 0;
+        while (i < count || j < previousCount) {
+            if (j == previousCount || (i < count && keys[i] < previousKeys[j])) {
+                began.addFrom(contacts, current.order[i++]);
+            } else if (i == count || previousKeys[j] < keys[i]) {
+                ended.addFrom(previousContacts, previous.order[j++]);
+            } else {
+                stayed.addFrom(contacts, current.order[i++]);
+                j++;
+            }
+        }
+
+        for (int k = 0; k < listeners.size(); k++) {
+            ContactListener listener = listeners.get(k);
+            if (began.size() > 0) listener.onContactBegin(began);
+            if (stayed.size() > 0) listener.onContactStay(stayed);
+            if (ended.size() > 0) listener.onContactEnd(ended);
+        }
+    }
+
+    // 按键值对 keys[lo..hi] 排序，order 同步交换
+    private static void sortKeys(long[] keys, int[] order, int lo, int hi) {
+        while (hi - lo > 16) {
+            long pivot = keys[(lo + hi) >>> 1];
+            int i = lo, j = hi;
+            while (i <= j) {
+                while (keys[i] < pivot) i++;
+                while (keys[j] > pivot) j--;
+                if (i <= j) {
+                    swap(keys, order, i++, j--);
+                }
+            }
+            // 递归处理较短的一侧，较长的一侧继续循环
+            if (j - lo < hi - i) {
+                sortKeys(keys, order, lo, j);
+                lo = i;
+            } else {
+                sortKeys(keys, order, i, hi);
+                hi = j;
+            }
+        }
+        for (int i = lo + 1; i <= hi; i++) {
+            for (int j = i; j > lo && keys[j - 1] > keys[j]; j--) {
+                swap(keys, order, j - 1, j);
+            }
+        }
+    }
+
+    private static void swap(long[] keys, int[] order, int i, int j) {
+        long key = keys[i];
+        keys[i] = keys[j];
+        keys[j] = key;
+        int index = order[i];
+        order[i] = order[j];
+        order[j] = index;
+    }
+
+    /**
+     * 连续碰撞检测：用物体上一帧到本帧的位移做扫掠圆测试，返回最早碰到的对象
+     * @param object 已登记的移动物体（通常带有 fast 标记的碰撞体）
+     * @param layerMask 参与检测的碰撞层掩码
+     * @return 最早命中的对象，没有则返回 null
+     */
+    public GameObject sweepFirst(GameObject object, int layerMask) {
+        Body mover = bodies.get(object);
+        if (mover == null) return null;
+
+        float x0 = mover.prevX, y0 = mover.prevY;
+        float x1 = mover.x, y1 = mover.y;
+        float r = mover.radius;
+        float minX = Math.min(x0, x1), minY = Math.min(y0, y1);
+        float maxX = Math.max(x0, x1), maxY = Math.max(y0, y1);
+
+        GameObject best = null;
+        float bestToi = Float.MAX_VALUE;
+        for (int layer = 0; layer < layers.length; layer++) {
+            Broadphase broadphase = layers[layer];
+            if (broadphase == null || (layerMask & (1 << layer)) == 0) continue;
+            int count = queryCandidates(broadphase, minX - r, minY - r, maxX + r, maxY + r);
+            for (int i = 0; i < count; i++) {
+                Body target = (Body) broadphase.getUserData(candidates[i]);
+                if (target == mover || !target.object.isActive()) continue;
+                float toi = fixed ? toiToFloat(timeOfImpactFixed(mover, target)) : timeOfImpact(mover, target);
+                if (toi >= 0 && toi < bestToi) {
+                    bestToi = toi;
+                    best = target.object;
+                }
+            }
+        }
+        lastTimeOfImpact = best != null ? bestToi : -1;
+        return best;
+    }
+
+    /**
+     * 获取最近一次 sweepFirst 命中的碰撞时刻（0~1，未命中为 -1）
+     */
+    public float getLastTimeOfImpact() {
+        return lastTimeOfImpact;
+    }
+
+    /**
+     * 两个圆在本帧内按线性运动首次接触的归一化时刻
+     * @return 0~1 之间的碰撞时刻，不接触返回 -1
+     */
+    private static float timeOfImpact(Body a, Body b) {
+        // 以 b 为参考系：a 从 m 出发，位移为 d
+        float mx = a.prevX - b.prevX;
+        float my = a.prevY - b.prevY;
+        float dx = (a.x - a.prevX) - (b.x - b.prevX);
+        float dy = (a.y - a.prevY) - (b.y - b.prevY);
+        float r = a.radius + b.radius;
+
+        float c = mx * mx + my * my - r * r;
+        if (c <= 0) return 0; // 帧初已重叠
+        float aa = dx * dx + dy * dy;
+        if (aa == 0) return -1;
+        float bb = mx * dx + my * dy;
+        if (bb >= 0) return -1; // 正在远离
+        float disc = bb * bb - aa * c;
+        if (disc < 0) return -1;
+        float t = (-bb - (float) Math.sqrt(disc)) / aa;
+        return t <= 1 ? t : -1;
+    }
+
+    /**
+     * 定点版本的 timeOfImpact，结果为 16.16 的碰撞时刻（0~ONE），不接触返回 -1
+     * 平方项用 long 计算；判别式会溢出，因此先用整数除法求最近点时刻，再在 [0, 最近点] 上二分求首次接触，
+     * 整个过程只有整数运算，定点模式下快速物体的接触与平台无关
+     */
+    private static int timeOfImpactFixed(Body a, Body b) {
+        long mx = a.fprevX - b.fprevX;
+        long my = a.fprevY - b.fprevY;
+        long dx = (long) (a.fx - a.fprevX) - (b.fx - b.fprevX);
+        long dy = (long) (a.fy - a.fprevY) - (b.fy - b.fprevY);
+        long r = (long) a.fr + b.fr;
+        long r2 = r * r;
+
+        if (mx * mx + my * my <= r2) return 0; // 帧初已重叠
+        long aa = dx * dx + dy * dy;
+        if (aa == 0) return -1;
+        long bb = mx * dx + my * dy;
+        if (bb >= 0) return -1; // 正在远离
+
+        // 最近点时刻 -bb / aa，按位做定点除法避免左移溢出
+        int closest = FixedPoint.ONE;
+        long remainder = -bb;
+        if (remainder < aa) {
+            closest = 0;
+            for (int bit = 0; bit < FixedPoint.FRACTION_BITS; bit++) {
+                remainder <<= 1;
+                closest <<= 1;
+                if (remainder >= aa) {
+                    remainder -= aa;
+                    closest |= 1;
+                }
+            }
+        }
+        if (distanceSquaredAt(mx, my, dx, dy, closest) > r2) return -1;
+
+        // 距离在 [0, closest] 上单调递减：lo 处未接触，hi 处已接触
+        int lo = 0, hi = closest;
+        while (hi - lo > 1) {
+            int mid = (lo + hi) >>> 1;
+            if (distanceSquaredAt(mx, my, dx, dy, mid) <= r2) {
+                hi = mid;
+            } else {
+                lo = mid;
+            }
+        }
+        return hi;
+    }
+
+    private static long distanceSquaredAt(long mx, long my, long dx, long dy, int t) {
+        long x = mx + ((dx * t) >> FixedPoint.FRACTION_BITS);
+        long y = my + ((dy * t) >> FixedPoint.FRACTION_BITS);
+        return x * x + y * y;
+    }
+
+    private static float toiToFloat(int toi) {
+        return toi < 0 ? -1 : FixedPoint.toFloat(toi);
+    }
+
+    private int queryCandidates(Broadphase broadphase, float minX, float minY, float maxX, float maxY) {
+        int count = broadphase.query(minX, minY, maxX, maxY, candidates);
+        while (count == candidates.length) {
+            candidates = new int[candidates.length * 2];
+            count = broadphase.query(minX, minY, maxX, maxY, candidates);
+        }
+        return count;
+    }
+
+    private Broadphase getLayer(int layer) {
+        if (layers[layer] == null) {
+            layers[layer] = BroadphaseFactory.createBroadphase(layerTypes[layer]);
+        }
+        return layers[layer];
+    }
+
+    /**
+     * 获取本帧的全部接触（下一次 update 前有效）
+     */
+    public ContactBuffer getContacts() {
+        return current.contacts;
+    }
+
+    /**
+     * 启用/禁用并行窄相位（物体数量达到阈值时才会拆分到线程池）
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    // 守护线程空闲一段时间后自行退出，碰撞世界被丢弃时不需要显式关闭线程池
+    private ExecutorService getExecutor() {
+        if (executor == null) {
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(threadCount, threadCount,
+                    WORKER_IDLE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+                Thread t = new Thread(r, "collision-worker");
+                t.setDaemon(true);
+                return t;
+            });
+            pool.allowCoreThreadTimeOut(true);
+            executor = pool;
+        }
+        return executor;
+    }
+
+    /**
+     * 获取已登记的对象数量
+     */
+    public int getBodyCount() {
+        return bodies.size();
+    }
+
+    /**
+     * 获取本帧处于休眠的已登记物体数量
+     */
+    public int getSleepingBodyCount() {
+        return sleepingBodies;
+    }
+
+    /**
+     * 获取指定层的宽相位（该层尚无物体时返回 null）
+     */
+    public Broadphase getBroadphase(int layer) {
+        return layers[layer];
+    }
+}
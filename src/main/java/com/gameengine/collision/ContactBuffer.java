@@ -0,0 +1,123 @@
+package com.gameengine.collision;
+
+import com.gameengine.core.GameObject;
+
+import java.util.Arrays;
+
+/**
+ * 接触列表，按字段分别存放在连续数组中
+ * 每个接触的 A 为碰撞层较低（同层时登记较早）的一方，法线由 A 指向 B
+ */
+public class ContactBuffer {
+    private int count;
+    private GameObject[] objectsA;
+    private GameObject[] objectsB;
+    private int[] layersA;
+    private int[] layersB;
+    private float[] normalXs;
+    private float[] normalYs;
+    private float[] penetrations;
+
+    public ContactBuffer() {
+        this(64);
+    }
+
+    public ContactBuffer(int initialCapacity) {
+        int capacity = Math.max(4, initialCapacity);
+        this.objectsA = new GameObject[capacity];
+        this.objectsB = new GameObject[capacity];
+        this.layersA = new int[capacity];
+        this.layersB = new int[capacity];
+        this.normalXs = new float[capacity];
+        this.normalYs = new float[capacity];
+        this.penetrations = new float[capacity];
+    }
+
+    /**
+     * 添加接触
+     * @return 接触索引
+     */
+    public int add(GameObject a, int layerA, GameObject b, int layerB, float nx, float ny, float penetration) {
+        if (count == objectsA.length) {
+            grow();
+        }
+        objectsA[count] = a;
+        objectsB[count] = b;
+        layersA[count] = layerA;
+        layersB[count] = layerB;
+        normalXs[count] = nx;
+        normalYs[count] = ny;
+        penetrations[count] = penetration;
+        return count++;
+    }
+
+    /**
+     * 复制另一个缓冲区中的接触
+     */
+    public int addFrom(ContactBuffer other, int index) {
+        return add(other.objectsA[index], other.layersA[index], other.objectsB[index], other.layersB[index],
+                other.normalXs[index], other.normalYs[index], other.penetrations[index]);
+    }
+
+    /**
+     * 清空（保留容量，释放对象引用）
+     */
+    public void clear() {
+        Arrays.fill(objectsA, 0, count, null);
+        Arrays.fill(objectsB, 0, count, null);
+        count = 0;
+    }
+
+    private void grow() {
+        int capacity = objectsA.length * 2;
+        objectsA = Arrays.copyOf(objectsA, capacity);
+        objectsB = Arrays.copyOf(objectsB, capacity);
+        layersA = Arrays.copyOf(layersA, capacity);
+        layersB = Arrays.copyOf(layersB, capacity);
+        normalXs = Arrays.copyOf(normalXs, capacity);
+        normalYs = Arrays.copyOf(normalYs, capacity);
+        penetrations = Arrays.copyOf(penetrations, capacity);
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public GameObject getObjectA(int index) {
+        return objectsA[index];
+    }
+
+    public GameObject getObjectB(int index) {
+        return objectsB[index];
+    }
+
+    public int getLayerA(int index) {
+        return layersA[index];
+    }
+
+    public int getLayerB(int index) {
+        return layersB[index];
+    }
+
+    public float getNormalX(int index) {
+        return normalXs[index];
+    }
+
+    public float getNormalY(int index) {
+        return normalYs[index];
+    }
+
+    public float getPenetration(int index) {
+        return penetrations[index];
+    }
+
+    /**
+     * 判断接触是否发生在指定的两个碰撞层之间，返回 A/B 是否需要交换才能对应 (layer1, layer2)
+     * @return 0 不匹配，1 顺序一致，-1 需要交换
+     */
+    public int match(int index, int layer1, int layer2) {
+        if (layersA[index] == layer1 && layersB[index] == layer2) return 1;
+        if (layersA[index] == layer2 && layersB[index] == layer1) return -1;
+        return 0;
+    }
+}
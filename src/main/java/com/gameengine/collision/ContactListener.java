@@ -0,0 +1,22 @@
+package com.gameengine.collision;
+
+/**
+ * 接触事件监听器
+ * 每帧按批次回调，同一批次内的接触共用一个缓冲区，回调返回后缓冲区会被复用
+ */
+public interface ContactListener {
+    /**
+     * 本帧新开始的接触
+     */
+    default void onContactBegin(ContactBuffer contacts) {}
+
+    /**
+     * 上一帧已存在且本帧仍在持续的接触
+     */
+    default void onContactStay(ContactBuffer contacts) {}
+
+    /**
+     * 上一帧存在而本帧已结束的接触（包括一方被销毁的情况）
+     */
+    default void onContactEnd(ContactBuffer contacts) {}
+}
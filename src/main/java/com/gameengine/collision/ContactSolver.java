@@ -0,0 +1,283 @@
+package com.gameengine.collision;
+
+import com.gameengine.components.ColliderComponent;
+import com.gameengine.components.PhysicsComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.core.GameObject;
+import com.gameengine.math.Vector2;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * 接触求解器（顺序冲量法）
+ * 把接触涉及的物体收集到连续数组，按质量分配法向冲量并支持弹性系数，
+ * 迭代若干次后再按穿透深度做一次位置修正，最后只写回状态有变化的物体
+ *
+ * 没有 PhysicsComponent 的物体视为质量无穷大的静态物体
+ */
+public class ContactSolver {
+    private int iterations;
+    private float correctionPercent;
+    private float correctionSlop;
+    private float restitutionThreshold;
+    private final int[] responseMasks;
+
+    // 物体数据（按求解器内部索引）
+    private final Map<GameObject, Integer> bodyIndex = new IdentityHashMap<>();
+    private GameObject[] bodies = new GameObject[64];
+    private PhysicsComponent[] physics = new PhysicsComponent[64];
+    private float[] invMass = new float[64];
+    private float[] restitution = new float[64];
+    private float[] vx = new float[64];
+    private float[] vy = new float[64];
+    private float[] dx = new float[64];
+    private float[] dy = new float[64];
+    private boolean[] changed = new boolean[64];
+    private Integer[] boxedIndices = new Integer[64]; // 复用装箱后的索引，避免每帧装箱
+    private int bodyCount;
+    private final Vector2 scratch = new Vector2();
+
+    // 接触数据（按求解的接触顺序）
+    private int[] contactIndex = new int[64];
+    private int[] indexA = new int[64];
+    private int[] indexB = new int[64];
+    private float[] normalMass = new float[64];
+    private float[] targetVelocity = new float[64];
+    private float[] accumulated = new float[64];
+    private int solvedCount;
+
+    public ContactSolver() {
+        this.iterations = 8;
+        this.correctionPercent = 0.8f;
+        this.correctionSlop = 0.5f;
+        this.restitutionThreshold = 20.0f;
+        this.responseMasks = new int[ColliderComponent.MAX_LAYERS];
+        Arrays.fill(responseMasks, -1);
+    }
+
+    /**
+     * 求解一批接触（通常是 CollisionWorld.getContacts()）
+     * @return 实际参与求解的接触数量
+     */
+    public int solve(ContactBuffer contacts) {
+        prepare(contacts);
+        if (solvedCount == 0) {
+            clearBodies();
+            return 0;
+        }
+
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            for (int c = 0; c < solvedCount; c++) {
+                int a = indexA[c];
+                int b = indexB[c];
+                int k = contactIndex[c];
+                float nx = contacts.getNormalX(k);
+                float ny = contacts.getNormalY(k);
+                float vn = (vx[b] - vx[a]) * nx + (vy[b] - vy[a]) * ny;
+
+                // 累计冲量不小于 0：只推开，不拉近
+                float lambda = normalMass[c] * (targetVelocity[c] - vn);
+                float total = Math.max(0, accumulated[c] + lambda);
+                lambda = total - accumulated[c];
+                accumulated[c] = total;
+                if (lambda == 0) continue;
+
+                vx[a] -= nx * lambda * invMass[a];
+                vy[a] -= ny * lambda * invMass[a];
+                vx[b] += nx * lambda * invMass[b];
+                vy[b] += ny * lambda * invMass[b];
+                changed[a] = true;
+                changed[b] = true;
+            }
+        }
+
+        // 位置修正：按质量比例把穿透量（减去容差）推开
+        for (int c = 0; c < solvedCount; c++) {
+            int k = contactIndex[c];
+            float depth = contacts.getPenetration(k) - correctionSlop;
+            if (depth <= 0) continue;
+            int a = indexA[c];
+            int b = indexB[c];
+            float correction = depth * correctionPercent * normalMass[c];
+            float nx = contacts.getNormalX(k);
+            float ny = contacts.getNormalY(k);
+            dx[a] -= nx * correction * invMass[a];
+            dy[a] -= ny * correction * invMass[a];
+            dx[b] += nx * correction * invMass[b];
+            dy[b] += ny * correction * invMass[b];
+            changed[a] = true;
+            changed[b] = true;
+        }
+
+        writeBack();
+        int solved = solvedCount;
+        clearBodies();
+        return solved;
+    }
+
+    private void prepare(ContactBuffer contacts) {
+        bodyCount = 0;
+        solvedCount = 0;
+        for (int k = 0; k < contacts.size(); k++) {
+            if ((responseMasks[contacts.getLayerA(k)] & (1 << contacts.getLayerB(k))) == 0) continue;
+            GameObject objA = contacts.getObjectA(k);
+            GameObject objB = contacts.getObjectB(k);
+            if (!objA.isActive() || !objB.isActive()) continue;
+            // 双方都在休眠（或静止）时保持不动，由物理系统的岛决定何时唤醒
+            if (isResting(objA) && isResting(objB)) continue;
+
+            int a = indexOf(objA);
+            int b = indexOf(objB);
+            float inverseMassSum = invMass[a] + invMass[b];
+            if (inverseMassSum == 0) continue;
+
+            if (solvedCount == contactIndex.length) {
+                growContacts();
+            }
+            int c = solvedCount++;
+            contactIndex[c] = k;
+            indexA[c] = a;
+            indexB[c] = b;
+            normalMass[c] = 1.0f / inverseMassSum;
+            accumulated[c] = 0;
+
+            // 接近速度足够大时按弹性系数反弹，低速接触视为非弹性以免抖动
+            float vn = (vx[b] - vx[a]) * contacts.getNormalX(k) + (vy[b] - vy[a]) * contacts.getNormalY(k);
+            float e = Math.max(restitution[a], restitution[b]);
+            targetVelocity[c] = vn < -restitutionThreshold ? -e * vn : 0;
+        }
+    }
+
+    private int indexOf(GameObject obj) {
+        Integer index = bodyIndex.get(obj);
+        if (index != null) return index;
+
+        if (bodyCount == bodies.length) {
+            growBodies();
+        }
+        int i = bodyCount++;
+        PhysicsComponent p = obj.getComponent(PhysicsComponent.class);
+        boolean dynamic = p != null && p.isEnabled() && obj.getComponent(TransformComponent.class) != null;
+        bodies[i] = obj;
+        physics[i] = dynamic ? p : null;
+        invMass[i] = dynamic ? 1.0f / p.getMass() : 0;
+        restitution[i] = p != null ? p.getRestitution() : 0;
+        if (dynamic) {
+            Vector2 velocity = p.getVelocity(scratch);
+            vx[i] = velocity.x;
+            vy[i] = velocity.y;
+        } else {
+            vx[i] = 0;
+            vy[i] = 0;
+        }
+        dx[i] = 0;
+        dy[i] = 0;
+        changed[i] = false;
+        if (boxedIndices[i] == null) {
+            boxedIndices[i] = i;
+        }
+        bodyIndex.put(obj, boxedIndices[i]);
+        return i;
+    }
+
+    private static boolean isResting(GameObject obj) {
+        PhysicsComponent p = obj.getComponent(PhysicsComponent.class);
+        return p == null || !p.isEnabled() || p.isSleeping();
+    }
+
+    private void writeBack() {
+        for (int i = 0; i < bodyCount; i++) {
+            if (!changed[i] || physics[i] == null) continue;
+            physics[i].setVelocity(vx[i], vy[i]);
+            if (dx[i] != 0 || dy[i] != 0) {
+                TransformComponent transform = bodies[i].getComponent(TransformComponent.class);
+                Vector2 position = transform.getPosition(scratch);
+                transform.setPosition(position.x + dx[i], position.y + dy[i]);
+            }
+        }
+    }
+
+    private void clearBodies() {
+        Arrays.fill(bodies, 0, bodyCount, null);
+        Arrays.fill(physics, 0, bodyCount, null);
+        bodyIndex.clear();
+        bodyCount = 0;
+    }
+
+    private void growBodies() {
+        int capacity = bodies.length * 2;
+        bodies = Arrays.copyOf(bodies, capacity);
+        physics = Arrays.copyOf(physics, capacity);
+        invMass = Arrays.copyOf(invMass, capacity);
+        restitution = Arrays.copyOf(restitution, capacity);
+        vx = Arrays.copyOf(vx, capacity);
+        vy = Arrays.copyOf(vy, capacity);
+        dx = Arrays.copyOf(dx, capacity);
+        dy = Arrays.copyOf(dy, capacity);
+        changed = Arrays.copyOf(changed, capacity);
+        boxedIndices = Arrays.copyOf(boxedIndices, capacity);
+    }
+
+    private void growContacts() {
+        int capacity = contactIndex.length * 2;
+        contactIndex = Arrays.copyOf(contactIndex, capacity);
+        indexA = Arrays.copyOf(indexA, capacity);
+        indexB = Arrays.copyOf(indexB, capacity);
+        normalMass = Arrays.copyOf(normalMass, capacity);
+        targetVelocity = Arrays.copyOf(targetVelocity, capacity);
+        accumulated = Arrays.copyOf(accumulated, capacity);
+    }
+
+    /**
+     * 设置两个碰撞层之间的接触是否产生物理响应（对称，默认全部产生）
+     */
+    public void setResponse(int layerA, int layerB, boolean enabled) {
+        if (enabled) {
+            responseMasks[layerA] |= 1 << layerB;
+            responseMasks[layerB] |= 1 << layerA;
+        } else {
+            responseMasks[layerA] &= ~(1 << layerB);
+            responseMasks[layerB] &= ~(1 << layerA);
+        }
+    }
+
+    /**
+     * 设置速度迭代次数
+     */
+    public void setIterations(int iterations) {
+        this.iterations = Math.max(1, iterations);
+    }
+
+    /**
+     * 设置位置修正：每帧修正穿透量的比例与允许的穿透容差（像素）
+     */
+    public void setPositionCorrection(float percent, float slop) {
+        this.correctionPercent = Math.max(0, Math.min(1, percent));
+        this.correctionSlop = Math.max(0, slop);
+    }
+
+    /**
+     * 设置弹性生效的最小接近速度（像素/秒）
+     */
+    public void setRestitutionThreshold(float restitutionThreshold) {
+        this.restitutionThreshold = Math.max(0, restitutionThreshold);
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public float getCorrectionPercent() {
+        return correctionPercent;
+    }
+
+    public float getCorrectionSlop() {
+        return correctionSlop;
+    }
+
+    public boolean hasResponse(int layerA, int layerB) {
+        return (responseMasks[layerA] & (1 << layerB)) != 0;
+    }
+}
@@ -0,0 +1,421 @@
+package com.gameengine.collision;
+
+import java.util.Arrays;
+
+/**
+ * 动态 AABB 树
+ * 叶子保存加宽（fat）后的包围盒，物体在加宽范围内移动时无需更新树；
+ * 超出后移除并重新插入，沿途向上重算包围盒并通过旋转保持平衡
+ */
+public class DynamicAabbTree implements Broadphase {
+    private static final int NULL_NODE = -1;
+
+    private final float margin;
+
+    // 节点数据（按节点索引，叶子节点索引即代理 ID）
+    private float[] minXs;
+    private float[] minYs;
+    private float[] maxXs;
+    private float[] maxYs;
+    private int[] parents;
+    private int[] child1s;
+    private int[] child2s;
+    private int[] heights;
+    private Object[] userData;
+    // 叶子的真实形状
+    private float[] xs;
+    private float[] ys;
+    private float[] radii;
+
+    private int capacity;
+    private int nodeCount;
+    private int freeList;
+    private int root;
+    private int proxyCount;
+
+    // 查询遍历栈按线程分配，允许多个线程同时查询同一棵树
+    private static final ThreadLocal<int[]> STACKS = ThreadLocal.withInitial(() -> new int[64]);
+
+    public DynamicAabbTree() {
+        this(4.0f);
+    }
+
+    public DynamicAabbTree(float margin) {
+        this.margin = Math.max(0, margin);
+        this.capacity = 64;
+        this.minXs = new float[capacity];
+        this.minYs = new float[capacity];
+        this.maxXs = new float[capacity];
+        this.maxYs = new float[capacity];
+        this.parents = new int[capacity];
+        this.child1s = new int[capacity];
+        this.child2s = new int[capacity];
+        this.heights = new int[capacity];
+        this.userData = new Object[capacity];
+        this.xs = new float[capacity];
+        this.ys = new float[capacity];
+        this.radii = new float[capacity];
+        this.root = NULL_NODE;
+        linkFreeNodes(0);
+    }
+
+    @Override
+    public int createProxy(float x, float y, float radius, Object data) {
+        int leaf = allocateNode();
+        userData[leaf] = data;
+        setShape(leaf, x, y, radius);
+        setFatBounds(leaf);
+        heights[leaf] = 0;
+        insertLeaf(leaf);
+        proxyCount++;
+        return leaf;
+    }
+
+    @Override
+    public void moveProxy(int proxyId, float x, float y, float radius) {
+        if (proxyId < 0 || proxyId >= capacity || heights[proxyId] != 0) return;
+        setShape(proxyId, x, y, radius);
+        float r = radii[proxyId];
+        // 仍在加宽包围盒内时不动树
+        if (x - r >= minXs[proxyId] && y - r >= minYs[proxyId]
+                && x + r <= maxXs[proxyId] && y + r <= maxYs[proxyId]) {
+            return;
+        }
+        removeLeaf(proxyId);
+        setFatBounds(proxyId);
+        insertLeaf(proxyId);
+    }
+
+    @Override
+    public void destroyProxy(int proxyId) {
+        if (proxyId < 0 || proxyId >= capacity || heights[proxyId] != 0) return;
+        removeLeaf(proxyId);
+        freeNode(proxyId);
+        proxyCount--;
+    }
+
+    @Override
+    public void update() {
+        // 树在 create/move/destroy 时增量维护，无需整体重建
+    }
+
+    @Override
+    public int query(float qMinX, float qMinY, float qMaxX, float qMaxY, int[] out) {
+        if (root == NULL_NODE) return 0;
+
+        int[] stack = STACKS.get();
+        int count = 0;
+        int top = 0;
+        stack[top++] = root;
+        while (top > 0) {
+            int node = stack[--top];
+            if (maxXs[node] < qMinX || minXs[node] > qMaxX
+                    || maxYs[node] < qMinY || minYs[node] > qMaxY) {
+                continue;
+            }
+            if (child1s[node] == NULL_NODE) {
+                // 叶子：再用真实形状的包围盒精确筛选
+                float r = radii[node];
+                if (xs[node] + r < qMinX || xs[node] - r > qMaxX) continue;
+                if (ys[node] + r < qMinY || ys[node] - r > qMaxY) continue;
+                if (count == out.length) return count;
+                out[count++] = node;
+            } else {
+                if (top + 2 > stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                    STACKS.set(stack);
+                }
+                stack[top++] = child1s[node];
+                stack[top++] = child2s[node];
+            }
+        }
+        return count;
+    }
+
+    private void insertLeaf(int leaf) {
+        if (root == NULL_NODE) {
+            root = leaf;
+            parents[leaf] = NULL_NODE;
+            return;
+        }
+
+        // 按表面积启发式（2D 中用周长）向下寻找最佳兄弟节点
+        float lMinX = minXs[leaf], lMinY = minYs[leaf], lMaxX = maxXs[leaf], lMaxY = maxYs[leaf];
+        int index = root;
+        while (child1s[index] != NULL_NODE) {
+            int c1 = child1s[index];
+            int c2 = child2s[index];
+
+            float area = perimeter(minXs[index], minYs[index], maxXs[index], maxYs[index]);
+            float combined = perimeter(Math.min(minXs[index], lMinX), Math.min(minYs[index], lMinY),
+                    Math.max(maxXs[index], lMaxX), Math.max(maxYs[index], lMaxY));
+            float cost = 2.0f * combined;
+            float inheritanceCost = 2.0f * (combined - area);
+
+            float cost1 = descendCost(c1, lMinX, lMinY, lMaxX, lMaxY) + inheritanceCost;
+            float cost2 = descendCost(c2, lMinX, lMinY, lMaxX, lMaxY) + inheritanceCost;
+
+            if (cost < cost1 && cost < cost2) break;
+            index = cost1 < cost2 ? c1 : c2;
+        }
+
+        int sibling = index;
+        int oldParent = parents[sibling];
+        int newParent = allocateNode();
+        parents[newParent] = oldParent;
+        userData[newParent] = null;
+        heights[newParent] = heights[sibling] + 1;
+        unionInto(newParent, sibling, leaf);
+
+        if (oldParent != NULL_NODE) {
+            if (child1s[oldParent] == sibling) {
+                child1s[oldParent] = newParent;
+            } else {
+                child2s[oldParent] = newParent;
+            }
+        } else {
+            root = newParent;
+        }
+        child1s[newParent] = sibling;
+        child2s[newParent] = leaf;
+        parents[sibling] = newParent;
+        parents[leaf] = newParent;
+
+        refitUpwards(parents[leaf]);
+    }
+
+    private void removeLeaf(int leaf) {
+        if (leaf == root) {
+            root = NULL_NODE;
+            return;
+        }
+
+        int parent = parents[leaf];
+        int grandParent = parents[parent];
+        int sibling = child1s[parent] == leaf ? child2s[parent] : child1s[parent];
+
+        if (grandParent != NULL_NODE) {
+            if (child1s[grandParent] == parent) {
+                child1s[grandParent] = sibling;
+            } else {
+                child2s[grandParent] = sibling;
+            }
+            parents[sibling] = grandParent;
+            freeNode(parent);
+            refitUpwards(grandParent);
+        } else {
+            root = sibling;
+            parents[sibling] = NULL_NODE;
+            freeNode(parent);
+        }
+        parents[leaf] = NULL_NODE;
+    }
+
+    /**
+     * 从 index 开始向上旋转平衡并重算包围盒和高度
+     */
+    private void refitUpwards(int index) {
+        while (index != NULL_NODE) {
+            index = balance(index);
+            int c1 = child1s[index];
+            int c2 = child2s[index];
+            heights[index] = 1 + Math.max(heights[c1], heights[c2]);
+            unionInto(index, c1, c2);
+            index = parents[index];
+        }
+    }
+
+    /**
+     * 若 a 的左右子树高度差超过 1，则把较高的子节点旋转上来
+     * @return 旋转后该位置的子树根
+     */
+    private int balance(int a) {
+        if (child1s[a] == NULL_NODE || heights[a] < 2) {
+            return a;
+        }
+
+        int b = child1s[a];
+        int c = child2s[a];
+        int diff = heights[c] - heights[b];
+
+        if (diff > 1) {
+            int f = child1s[c];
+            int g = child2s[c];
+            rotateUp(a, c);
+            child1s[c] = a;
+            if (heights[f] > heights[g]) {
+                child2s[c] = f;
+                child2s[a] = g;
+                parents[g] = a;
+            } else {
+                child2s[c] = g;
+                child2s[a] = f;
+                parents[f] = a;
+            }
+            unionInto(a, b, child2s[a]);
+            unionInto(c, a, child2s[c]);
+            heights[a] = 1 + Math.max(heights[b], heights[child2s[a]]);
+            heights[c] = 1 + Math.max(heights[a], heights[child2s[c]]);
+            return c;
+        }
+
+        if (diff < -1) {
+            int d = child1s[b];
+            int e = child2s[b];
+            rotateUp(a, b);
+            child1s[b] = a;
+            if (heights[d] > heights[e]) {
+                child2s[b] = d;
+                child1s[a] = e;
+                parents[e] = a;
+            } else {
+                child2s[b] = e;
+                child1s[a] = d;
+                parents[d] = a;
+            }
+            unionInto(a, child1s[a], c);
+            unionInto(b, a, child2s[b]);
+            heights[a] = 1 + Math.max(heights[child1s[a]], heights[c]);
+            heights[b] = 1 + Math.max(heights[a], heights[child2s[b]]);
+            return b;
+        }
+
+        return a;
+    }
+
+    /**
+     * 让 child 取代 a 在其父节点中的位置，并成为 a 的父节点
+     */
+    private void rotateUp(int a, int child) {
+        int parent = parents[a];
+        parents[child] = parent;
+        parents[a] = child;
+        if (parent != NULL_NODE) {
+            if (child1s[parent] == a) {
+                child1s[parent] = child;
+            } else {
+                child2s[parent] = child;
+            }
+        } else {
+            root = child;
+        }
+    }
+
+    private float descendCost(int node, float lMinX, float lMinY, float lMaxX, float lMaxY) {
+        float combined = perimeter(Math.min(minXs[node], lMinX), Math.min(minYs[node], lMinY),
+                Math.max(maxXs[node], lMaxX), Math.max(maxYs[node], lMaxY));
+        if (child1s[node] == NULL_NODE) {
+            return combined;
+        }
+        return combined - perimeter(minXs[node], minYs[node], maxXs[node], maxYs[node]);
+    }
+
+    private static float perimeter(float minX, float minY, float maxX, float maxY) {
+        return 2.0f * ((maxX - minX) + (maxY - minY));
+    }
+
+    private void unionInto(int target, int a, int b) {
+        minXs[target] = Math.min(minXs[a], minXs[b]);
+        minYs[target] = Math.min(minYs[a], minYs[b]);
+        maxXs[target] = Math.max(maxXs[a], maxXs[b]);
+        maxYs[target] = Math.max(maxYs[a], maxYs[b]);
+    }
+
+    private void setShape(int leaf, float x, float y, float radius) {
+        xs[leaf] = x;
+        ys[leaf] = y;
+        radii[leaf] = Math.max(0, radius);
+    }
+
+    private void setFatBounds(int leaf) {
+        float r = radii[leaf] + margin;
+        minXs[leaf] = xs[leaf] - r;
+        minYs[leaf] = ys[leaf] - r;
+        maxXs[leaf] = xs[leaf] + r;
+        maxYs[leaf] = ys[leaf] + r;
+    }
+
+    private int allocateNode() {
+        if (freeList == NULL_NODE) {
+            grow();
+        }
+        int node = freeList;
+        freeList = parents[node];
+        parents[node] = NULL_NODE;
+        child1s[node] = NULL_NODE;
+        child2s[node] = NULL_NODE;
+        heights[node] = 0;
+        nodeCount++;
+        return node;
+    }
+
+    private void freeNode(int node) {
+        parents[node] = freeList;
+        child1s[node] = NULL_NODE;
+        child2s[node] = NULL_NODE;
+        heights[node] = -1;
+        userData[node] = null;
+        freeList = node;
+        nodeCount--;
+    }
+
+    private void grow() {
+        int oldCapacity = capacity;
+        capacity *= 2;
+        minXs = Arrays.copyOf(minXs, capacity);
+        minYs = Arrays.copyOf(minYs, capacity);
+        maxXs = Arrays.copyOf(maxXs, capacity);
+        maxYs = Arrays.copyOf(maxYs, capacity);
+        parents = Arrays.copyOf(parents, capacity);
+        child1s = Arrays.copyOf(child1s, capacity);
+        child2s = Arrays.copyOf(child2s, capacity);
+        heights = Arrays.copyOf(heights, capacity);
+        userData = Arrays.copyOf(userData, capacity);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        radii = Arrays.copyOf(radii, capacity);
+        linkFreeNodes(oldCapacity);
+    }
+
+    private void linkFreeNodes(int from) {
+        for (int i = from; i < capacity - 1; i++) {
+            parents[i] = i + 1;
+            heights[i] = -1;
+        }
+        parents[capacity - 1] = NULL_NODE;
+        heights[capacity - 1] = -1;
+        freeList = from;
+    }
+
+    @Override
+    public float getX(int proxyId) {
+        return xs[proxyId];
+    }
+
+    @Override
+    public float getY(int proxyId) {
+        return ys[proxyId];
+    }
+
+    @Override
+    public float getRadius(int proxyId) {
+        return radii[proxyId];
+    }
+
+    @Override
+    public Object getUserData(int proxyId) {
+        return userData[proxyId];
+    }
+
+    @Override
+    public int getProxyCount() {
+        return proxyCount;
+    }
+
+    /**
+     * 获取树高（根节点高度，空树为 0）
+     */
+    public int getHeight() {
+        return root == NULL_NODE ? 0 : heights[root];
+    }
+}
@@ -0,0 +1,60 @@
+package com.gameengine.collision;
+
+import com.gameengine.core.GameObject;
+
+/**
+ * 射线检测结果，由调用方创建并反复复用
+ */
+public class RaycastHit {
+    private GameObject object;
+    private float fraction;
+    private float pointX, pointY;
+    private float normalX, normalY;
+
+    void set(GameObject object, float fraction, float pointX, float pointY, float normalX, float normalY) {
+        this.object = object;
+        this.fraction = fraction;
+        this.pointX = pointX;
+        this.pointY = pointY;
+        this.normalX = normalX;
+        this.normalY = normalY;
+    }
+
+    void clear() {
+        this.object = null;
+        this.fraction = -1;
+    }
+
+    /**
+     * 命中的对象（未命中为 null）
+     */
+    public GameObject getObject() {
+        return object;
+    }
+
+    /**
+     * 命中点在线段上的比例（0 为起点，1 为终点）
+     */
+    public float getFraction() {
+        return fraction;
+    }
+
+    public float getPointX() {
+        return pointX;
+    }
+
+    public float getPointY() {
+        return pointY;
+    }
+
+    /**
+     * 命中点处碰撞圆的外法线（起点在圆内时为射线反方向）
+     */
+    public float getNormalX() {
+        return normalX;
+    }
+
+    public float getNormalY() {
+        return normalY;
+    }
+}
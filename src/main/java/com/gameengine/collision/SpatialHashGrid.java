@@ -0,0 +1,254 @@
+package com.gameengine.collision;
+
+import java.util.Arrays;
+
+/**
+ * 均匀空间哈希网格
+ * 代理以中心点落入单个格子，update() 时用计数排序一次性重建所有桶，
+ * 查询时只扫描与查询范围相交的格子
+ */
+public class SpatialHashGrid implements Broadphase {
+    private final float cellSize;
+    private final float invCellSize;
+
+    // 代理数据（按代理 ID 索引）
+    private float[] xs;
+    private float[] ys;
+    private float[] radii;
+    private int[] cellXs;
+    private int[] cellYs;
+    private Object[] userData;
+    private boolean[] alive;
+    private int capacity;
+    private int highWater;
+    private int proxyCount;
+
+    // 空闲 ID 栈
+    private int[] freeIds;
+    private int freeCount;
+
+    // 桶：bucketStart[h] .. bucketStart[h + 1] 为哈希值 h 的代理在 sorted 中的区间
+    private int[] bucketStart;
+    private int[] sorted;
+    private int[] cursor;
+    private int tableMask;
+    private float maxRadius;
+    private boolean dirty;
+
+    public SpatialHashGrid(float cellSize) {
+        this(cellSize, 256);
+    }
+
+    public SpatialHashGrid(float cellSize, int initialCapacity) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("cellSize must be positive");
+        }
+        this.cellSize = cellSize;
+        this.invCellSize = 1.0f / cellSize;
+        this.capacity = Math.max(16, initialCapacity);
+        this.xs = new float[capacity];
+        this.ys = new float[capacity];
+        this.radii = new float[capacity];
+        this.cellXs = new int[capacity];
+        this.cellYs = new int[capacity];
+        this.userData = new Object[capacity];
+        this.alive = new boolean[capacity];
+        this.freeIds = new int[capacity];
+        this.sorted = new int[capacity];
+        this.bucketStart = new int[1];
+        this.cursor = new int[0];
+        this.tableMask = 0;
+        this.dirty = true;
+    }
+
+    /**
+     * 创建代理
+     * @return 代理 ID
+     */
+    @Override
+    public int createProxy(float x, float y, float radius, Object data) {
+        int id;
+        if (freeCount > 0) {
+            id = freeIds[--freeCount];
+        } else {
+            if (highWater == capacity) {
+                grow();
+            }
+            id = highWater++;
+        }
+        alive[id] = true;
+        userData[id] = data;
+        setProxy(id, x, y, radius);
+        proxyCount++;
+        dirty = true;
+        return id;
+    }
+
+    /**
+     * 移动代理
+     */
+    @Override
+    public void moveProxy(int id, float x, float y, float radius) {
+        if (!alive[id]) return;
+        setProxy(id, x, y, radius);
+        dirty = true;
+    }
+
+    /**
+     * 销毁代理
+     */
+    @Override
+    public void destroyProxy(int id) {
+        if (id < 0 || id >= highWater || !alive[id]) return;
+        alive[id] = false;
+        userData[id] = null;
+        freeIds[freeCount++] = id;
+        proxyCount--;
+        dirty = true;
+    }
+
+    /**
+     * 重建哈希桶（代理有变化时才重建）
+     */
+    @Override
+    public void update() {
+        if (!dirty) return;
+        dirty = false;
+
+        int tableSize = Integer.highestOneBit(Math.max(16, proxyCount * 2) - 1) << 1;
+        if (bucketStart.length != tableSize + 1) {
+            bucketStart = new int[tableSize + 1];
+        } else {
+            Arrays.fill(bucketStart, 0);
+        }
+        tableMask = tableSize - 1;
+        maxRadius = 0;
+
+        // 计数
+        for (int id = 0; id < highWater; id++) {
+            if (!alive[id]) continue;
+            bucketStart[hash(cellXs[id], cellYs[id]) + 1]++;
+            if (radii[id] > maxRadius) maxRadius = radii[id];
+        }
+        // 前缀和
+        for (int h = 0; h < tableSize; h++) {
+            bucketStart[h + 1] += bucketStart[h];
+        }
+        // 填充
+        if (cursor.length < tableSize) {
+            cursor = new int[tableSize];
+        }
+        System.arraycopy(bucketStart, 0, cursor, 0, tableSize);
+        for (int id = 0; id < highWater; id++) {
+            if (!alive[id]) continue;
+            int h = hash(cellXs[id], cellYs[id]);
+            sorted[cursor[h]++] = id;
+        }
+    }
+
+    /**
+     * 查询与轴对齐矩形相交的代理
+     * @param out 结果缓冲区，超出容量的结果被丢弃
+     * @return 写入 out 的代理数量
+     */
+    @Override
+    public int query(float minX, float minY, float maxX, float maxY, int[] out) {
+        if (dirty) update();
+        if (proxyCount == 0) return 0;
+
+        // 代理只登记在中心所在格子，需要按最大半径扩展扫描范围
+        int cx0 = cellOf(minX - maxRadius);
+        int cy0 = cellOf(minY - maxRadius);
+        int cx1 = cellOf(maxX + maxRadius);
+        int cy1 = cellOf(maxY + maxRadius);
+
+        int count = 0;
+        // 查询范围覆盖的格子数超过桶数时，直接线性扫描更快
+        if ((long) (cx1 - cx0 + 1) * (cy1 - cy0 + 1) > tableMask + 1) {
+            for (int id = 0; id < highWater; id++) {
+                if (!alive[id]) continue;
+                float r = radii[id];
+                if (xs[id] + r < minX || xs[id] - r > maxX) continue;
+                if (ys[id] + r < minY || ys[id] - r > maxY) continue;
+                if (count == out.length) return count;
+                out[count++] = id;
+            }
+            return count;
+        }
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                int h = hash(cx, cy);
+                for (int i = bucketStart[h], end = bucketStart[h + 1]; i < end; i++) {
+                    int id = sorted[i];
+                    // 不同格子可能落入同一个桶，只接受真正属于本格的代理，避免重复
+                    if (cellXs[id] != cx || cellYs[id] != cy) continue;
+                    float r = radii[id];
+                    if (xs[id] + r < minX || xs[id] - r > maxX) continue;
+                    if (ys[id] + r < minY || ys[id] - r > maxY) continue;
+                    if (count == out.length) return count;
+                    out[count++] = id;
+                }
+            }
+        }
+        return count;
+    }
+
+    private void setProxy(int id, float x, float y, float radius) {
+        xs[id] = x;
+        ys[id] = y;
+        radii[id] = Math.max(0, radius);
+        cellXs[id] = cellOf(x);
+        cellYs[id] = cellOf(y);
+    }
+
+    private int cellOf(float v) {
+        return (int) Math.floor(v * invCellSize);
+    }
+
+    private int hash(int cx, int cy) {
+        return ((cx * 73856093) ^ (cy * 19349663)) & tableMask;
+    }
+
+    private void grow() {
+        int newCapacity = capacity * 2;
+        xs = Arrays.copyOf(xs, newCapacity);
+        ys = Arrays.copyOf(ys, newCapacity);
+        radii = Arrays.copyOf(radii, newCapacity);
+        cellXs = Arrays.copyOf(cellXs, newCapacity);
+        cellYs = Arrays.copyOf(cellYs, newCapacity);
+        userData = Arrays.copyOf(userData, newCapacity);
+        alive = Arrays.copyOf(alive, newCapacity);
+        freeIds = Arrays.copyOf(freeIds, newCapacity);
+        sorted = Arrays.copyOf(sorted, newCapacity);
+        capacity = newCapacity;
+    }
+
+    @Override
+    public float getX(int id) {
+        return xs[id];
+    }
+
+    @Override
+    public float getY(int id) {
+        return ys[id];
+    }
+
+    @Override
+    public float getRadius(int id) {
+        return radii[id];
+    }
+
+    @Override
+    public Object getUserData(int id) {
+        return userData[id];
+    }
+
+    @Override
+    public int getProxyCount() {
+        return proxyCount;
+    }
+
+    public float getCellSize() {
+        return cellSize;
+    }
+}
@@ -0,0 +1,242 @@
+package com.gameengine.collision;
+
+import com.gameengine.components.ColliderComponent;
+import com.gameengine.core.GameObject;
+
+/**
+ * 空间查询服务
+ * 基于碰撞世界的分层宽相位提供范围查询、k 近邻和线段射线检测，
+ * 结果写入调用方提供的数组，查询过程不分配内存
+ *
+ * 过滤条件：layerMask 选择碰撞层，tag 匹配对象名称（null 表示不限）。
+ * 距离均按对象碰撞圆的表面计算。实例持有查询缓冲区，只能在一个线程中使用
+ */
+public class SpatialQuery {
+    /** 射线检测每段的长度：逐段查询宽相位，命中后提前结束 */
+    private static final float RAY_SEGMENT_LENGTH = 128.0f;
+    /** k 近邻首轮搜索半径，未找够时逐轮翻倍 */
+    private static final float NEAREST_START_RADIUS = 64.0f;
+
+    private final CollisionWorld world;
+    private int[] candidates;
+    private float[] scratchDistances;
+
+    public SpatialQuery(CollisionWorld world) {
+        this.world = world;
+        this.candidates = new int[256];
+        this.scratchDistances = new float[16];
+    }
+
+    /**
+     * 查找与圆形范围重叠的对象
+     * @param out 结果数组，超出容量的结果被丢弃
+     * @return 写入 out 的数量
+     */
+    public int queryRadius(float x, float y, float radius, int layerMask, String tag, GameObject[] out) {
+        int found = 0;
+        for (int layer = 0; layer < ColliderComponent.MAX_LAYERS; layer++) {
+            Broadphase broadphase = world.getBroadphase(layer);
+            if (broadphase == null || (layerMask & (1 << layer)) == 0) continue;
+            int count = queryCandidates(broadphase, x - radius, y - radius, x + radius, y + radius);
+            for (int i = 0; i < count; i++) {
+                int proxy = candidates[i];
+                if (surfaceDistance(broadphase, proxy, x, y) > radius) continue;
+                GameObject obj = accept(broadphase, proxy, tag);
+                if (obj == null) continue;
+                if (found == out.length) return found;
+                out[found++] = obj;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * k 近邻查询：按表面距离从近到远写入结果
+     * 从较小半径开始查询，不足 k 个时半径翻倍，直到找够或超过 maxDistance；
+     * 查询范围已覆盖全部对象时不再扩大，改按 maxDistance 过滤候选再取一次结果
+     * @param maxDistance 最大搜索距离（Float.POSITIVE_INFINITY 表示不限）
+     * @param out 结果数组，k 不超过其长度
+     * @param distances 对应的表面距离（可为 null，此时使用内部缓冲区）
+     * @return 写入 out 的数量
+     */
+    public int nearest(float x, float y, float maxDistance, int layerMask, String tag,
+                       GameObject[] out, float[] distances) {
+        int k = out.length;
+        if (distances != null) {
+            k = Math.min(k, distances.length);
+        } else {
+            if (scratchDistances.length < k) {
+                scratchDistances = new float[k];
+            }
+            distances = scratchDistances;
+        }
+        if (k == 0) return 0;
+
+        int total = 0;
+        for (int layer = 0; layer < ColliderComponent.MAX_LAYERS; layer++) {
+            Broadphase broadphase = world.getBroadphase(layer);
+            if (broadphase != null && (layerMask & (1 << layer)) != 0) {
+                total += broadphase.getProxyCount();
+            }
+        }
+        if (total == 0) return 0;
+
+        float radius = Math.min(NEAREST_START_RADIUS, maxDistance);
+        boolean coveredAll = false;
+        while (true) {
+            float limit = coveredAll ? maxDistance : radius;
+            int found = 0;
+            int covered = 0;
+            for (int layer = 0; layer < ColliderComponent.MAX_LAYERS; layer++) {
+                Broadphase broadphase = world.getBroadphase(layer);
+                if (broadphase == null || (layerMask & (1 << layer)) == 0) continue;
+                int count = queryCandidates(broadphase, x - radius, y - radius, x + radius, y + radius);
+                covered += count;
+                for (int i = 0; i < count; i++) {
+                    int proxy = candidates[i];
+                    float distance = surfaceDistance(broadphase, proxy, x, y);
+                    if (distance > limit) continue;
+                    if (found == k && distance >= distances[k - 1]) continue;
+                    GameObject obj = accept(broadphase, proxy, tag);
+                    if (obj == null) continue;
+                    found = insertSorted(out, distances, found, k, obj, distance);
+                }
+            }
+            // 半径内的结果已完整：找够 k 个、到达最大距离，或已按 maxDistance 过滤过全部对象
+            if (found == k || radius >= maxDistance || coveredAll) {
+                return found;
+            }
+            // 候选已包含所有对象：表面距离超过 radius 的对象（如查询框角落里的）也可能是结果
+            if (covered >= total) {
+                coveredAll = true;
+                continue;
+            }
+            radius = Math.min(radius * 2, maxDistance);
+        }
+    }
+
+    /**
+     * 查找最近的单个对象
+     * @return 最近的对象，没有则返回 null
+     */
+    public GameObject nearest(float x, float y, float maxDistance, int layerMask, String tag, GameObject[] scratch) {
+        return nearest(x, y, maxDistance, layerMask, tag, scratch, null) > 0 ? scratch[0] : null;
+    }
+
+    /**
+     * 线段射线检测：返回从 (x0, y0) 到 (x1, y1) 最先碰到的对象
+     * 按固定长度分段查询宽相位，一旦某段内已确定最近命中就不再查询后续分段
+     * @param hit 结果（未命中时 object 为 null）
+     * @return 是否命中
+     */
+    public boolean raycast(float x0, float y0, float x1, float y1, int layerMask, String tag, RaycastHit hit) {
+        hit.clear();
+        float dx = x1 - x0;
+        float dy = y1 - y0;
+        float length = (float) Math.sqrt(dx * dx + dy * dy);
+        int segments = Math.max(1, (int) Math.ceil(length / RAY_SEGMENT_LENGTH));
+
+        float bestT = Float.MAX_VALUE;
+        GameObject best = null;
+        float bestCx = 0, bestCy = 0;
+        for (int s = 0; s < segments; s++) {
+            float t0 = (float) s / segments;
+            float t1 = (float) (s + 1) / segments;
+            float sx0 = x0 + dx * t0, sy0 = y0 + dy * t0;
+            float sx1 = x0 + dx * t1, sy1 = y0 + dy * t1;
+            float minX = Math.min(sx0, sx1), minY = Math.min(sy0, sy1);
+            float maxX = Math.max(sx0, sx1), maxY = Math.max(sy0, sy1);
+
+            for (int layer = 0; layer < ColliderComponent.MAX_LAYERS; layer++) {
+                Broadphase broadphase = world.getBroadphase(layer);
+                if (broadphase == null || (layerMask & (1 << layer)) == 0) continue;
+                int count = queryCandidates(broadphase, minX, minY, maxX, maxY);
+                for (int i = 0; i < count; i++) {
+                    int proxy = candidates[i];
+                    float cx = broadphase.getX(proxy);
+                    float cy = broadphase.getY(proxy);
+                    float t = segmentCircle(x0, y0, dx, dy, cx, cy, broadphase.getRadius(proxy));
+                    if (t < 0 || t >= bestT) continue;
+                    GameObject obj = accept(broadphase, proxy, tag);
+                    if (obj == null) continue;
+                    bestT = t;
+                    best = obj;
+                    bestCx = cx;
+                    bestCy = cy;
+                }
+            }
+            // 命中点落在已查询的分段内，后续分段不可能更近
+            if (best != null && bestT <= t1) break;
+        }
+        if (best == null) return false;
+
+        float px = x0 + dx * bestT;
+        float py = y0 + dy * bestT;
+        float nx = px - bestCx;
+        float ny = py - bestCy;
+        float len = (float) Math.sqrt(nx * nx + ny * ny);
+        if (bestT == 0 || len == 0) {
+            nx = length > 0 ? -dx / length : 0;
+            ny = length > 0 ? -dy / length : 0;
+        } else {
+            nx /= len;
+            ny /= len;
+        }
+        hit.set(best, bestT, px, py, nx, ny);
+        return true;
+    }
+
+    /**
+     * 线段与圆首次相交的比例，起点在圆内返回 0，不相交返回 -1
+     */
+    private static float segmentCircle(float x0, float y0, float dx, float dy, float cx, float cy, float r) {
+        float fx = x0 - cx;
+        float fy = y0 - cy;
+        float c = fx * fx + fy * fy - r * r;
+        if (c <= 0) return 0;
+        float a = dx * dx + dy * dy;
+        if (a == 0) return -1;
+        float b = fx * dx + fy * dy;
+        if (b >= 0) return -1;
+        float disc = b * b - a * c;
+        if (disc < 0) return -1;
+        float t = (-b - (float) Math.sqrt(disc)) / a;
+        return t <= 1 ? t : -1;
+    }
+
+    // 按距离插入有序结果，超出 k 的最远项被挤出
+    private static int insertSorted(GameObject[] out, float[] distances, int found, int k,
+                                    GameObject obj, float distance) {
+        int i = Math.min(found, k - 1);
+        while (i > 0 && distances[i - 1] > distance) {
+            out[i] = out[i - 1];
+            distances[i] = distances[i - 1];
+            i--;
+        }
+        out[i] = obj;
+        distances[i] = distance;
+        return Math.min(found + 1, k);
+    }
+
+    private static float surfaceDistance(Broadphase broadphase, int proxy, float x, float y) {
+        float dx = broadphase.getX(proxy) - x;
+        float dy = broadphase.getY(proxy) - y;
+        return Math.max(0, (float) Math.sqrt(dx * dx + dy * dy) - broadphase.getRadius(proxy));
+    }
+
+    private static GameObject accept(Broadphase broadphase, int proxy, String tag) {
+        GameObject obj = CollisionWorld.objectOf(broadphase, proxy);
+        if (!obj.isActive()) return null;
+        if (tag != null && !tag.equals(obj.getName())) return null;
+        return obj;
+    }
+
+    private int queryCandidates(Broadphase broadphase, float minX, float minY, float maxX, float maxY) {
+        int count = broadphase.query(minX, minY, maxX, maxY, candidates);
+        while (count == candidates.length) {
+            candidates = new int[candidates.length * 2];
+            count = broadphase.query(minX, minY, maxX, maxY, candidates);
+        }
+        return count;
+    }
+}
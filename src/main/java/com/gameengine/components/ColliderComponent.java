@@ -0,0 +1,98 @@
+package com.gameengine.components;
+
+import com.gameengine.core.Component;
+
+/**
+ * 碰撞体组件，以圆形描述物体的碰撞范围，并指定所在的碰撞层和可接触的层掩码
+ * 两个碰撞体只有在双方掩码都包含对方所在层时才会产生接触
+ */
+public class ColliderComponent extends Component<ColliderComponent> {
+    public static final int DEFAULT_LAYER = 0;
+    public static final int MAX_LAYERS = 32;
+    public static final int DEFAULT_MASK = -1;
+    
+    private float radius;
+    private int layer;
+    private int mask;
+    private boolean fast;
+    
+    public ColliderComponent(float radius) {
+        this(radius, DEFAULT_LAYER);
+    }
+    
+    public ColliderComponent(float radius, int layer) {
+        setRadius(radius);
+        setLayer(layer);
+        this.mask = DEFAULT_MASK;
+    }
+    
+    @Override
+    public void initialize() {
+        // 碰撞体由碰撞世界统一同步
+    }
+    
+    @Override
+    public void update(float deltaTime) {
+        // 碰撞体不需要每帧更新
+    }
+    
+    @Override
+    public void render() {
+        // 碰撞体不直接渲染
+    }
+    
+    /**
+     * 设置半径
+     */
+    public void setRadius(float radius) {
+        this.radius = Math.max(0, radius);
+    }
+    
+    /**
+     * 设置碰撞层
+     */
+    public void setLayer(int layer) {
+        if (layer < 0 || layer >= MAX_LAYERS) {
+            throw new IllegalArgumentException("layer out of range: " + layer);
+        }
+        this.layer = layer;
+    }
+    
+    /**
+     * 设置接触掩码（第 n 位对应第 n 层，0 表示不产生任何接触，只参与查询）
+     */
+    public void setMask(int mask) {
+        this.mask = mask;
+    }
+    
+    /**
+     * 是否接受与指定层的接触
+     */
+    public boolean collidesWith(int layer) {
+        return (mask & (1 << layer)) != 0;
+    }
+    
+    /**
+     * 标记为快速物体，碰撞检测改用帧间扫掠，避免高速穿透
+     */
+    public void setFast(boolean fast) {
+        this.fast = fast;
+    }
+    
+    // Getters
+    public float getRadius() {
+        return radius;
+    }
+    
+    public int getLayer() {
+        return layer;
+    }
+    
+    public int getMask() {
+        return mask;
+    }
+    
+    public boolean isFast() {
+        return fast;
+    }
+}
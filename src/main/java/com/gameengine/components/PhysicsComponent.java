@@ -1,6 +1,7 @@
 package com.gameengine.components;
 
 import com.gameengine.core.Component;
+import com.gameengine.core.FixedPointState;
 import com.gameengine.core.GameObject;
 import com.gameengine.math.Vector2;
 
@@ -10,18 +11,33 @@ import com.gameengine.math.Vector2;
 public class PhysicsComponent extends Component<PhysicsComponent> {
     private Vector2 velocity;
     private Vector2 acceleration;
+    private Vector2 lastAcceleration;
     private float mass;
     private float friction;
+    private float restitution;
     private boolean useGravity;
     private Vector2 gravity;
     
+    // 休眠状态：静止时间由物理系统累计
+    private boolean allowSleep;
+    private boolean sleeping;
+    private float sleepTime;
+    
+    // 定点物理模式的状态（首次使用时创建）
+    private FixedPointState fixedState;
+    
     public PhysicsComponent() {
         this.velocity = new Vector2();
         this.acceleration = new Vector2();
+        this.lastAcceleration = new Vector2();
         this.mass = 1.0f;
         this.friction = 0.9f;
+        this.restitution = 0.0f;
         this.useGravity = false;
         this.gravity = new Vector2(0, 9.8f);
+        this.allowSleep = true;
+        this.sleeping = false;
+        this.sleepTime = 0;
     }
     
     public PhysicsComponent(float mass) {
@@ -36,28 +52,7 @@ public class PhysicsComponent extends Component<PhysicsComponent> {
     
     @Override
     public void update(float deltaTime) {
-        if (!enabled) return;
-        
-        TransformComponent transform = owner.getComponent(TransformComponent.class);
-        if (transform == null) return;
-        
-        // 应用重力
-        if (useGravity) {
-            acceleration = acceleration.add(gravity);
-        }
-        
-        // 更新速度
-        velocity = velocity.add(acceleration.multiply(deltaTime));
-        
-        // 应用摩擦力
-        velocity = velocity.multiply(friction);
-        
-        // 更新位置
-        Vector2 deltaPosition = velocity.multiply(deltaTime);
-        transform.translate(deltaPosition);
-        
-        // 重置加速度
-        acceleration = new Vector2();
+        // 积分统一由 PhysicsSystem 执行，组件自身不再移动物体
     }
     
     @Override
@@ -69,8 +64,9 @@ public class PhysicsComponent extends Component<PhysicsComponent> {
      * 应用力
      */
     public void applyForce(Vector2 force) {
+        wake();
         if (mass > 0) {
-            acceleration = acceleration.add(force.multiply(1.0f / mass));
+            acceleration.mulAdd(force, 1.0f / mass);
         }
     }
     
@@ -78,8 +74,9 @@ public class PhysicsComponent extends Component<PhysicsComponent> {
      * 应用冲量
      */
     public void applyImpulse(Vector2 impulse) {
+        wake();
         if (mass > 0) {
-            velocity = velocity.add(impulse.multiply(1.0f / mass));
+            velocity.mulAdd(impulse, 1.0f / mass);
         }
     }
     
@@ -87,28 +84,59 @@ public class PhysicsComponent extends Component<PhysicsComponent> {
      * 设置速度
      */
     public void setVelocity(Vector2 velocity) {
-        this.velocity = new Vector2(velocity);
+        wake();
+        this.velocity.set(velocity);
     }
     
     /**
      * 设置速度
      */
     public void setVelocity(float x, float y) {
-        this.velocity = new Vector2(x, y);
+        wake();
+        this.velocity.set(x, y);
     }
     
     /**
      * 添加速度
      */
     public void addVelocity(Vector2 delta) {
-        this.velocity = velocity.add(delta);
+        wake();
+        this.velocity.addLocal(delta);
+    }
+    
+    /**
+     * 设置加速度（由物理系统在积分后清零）
+     */
+    public void setAcceleration(Vector2 acceleration) {
+        this.acceleration.set(acceleration);
+    }
+    
+    /**
+     * 设置加速度
+     */
+    public void setAcceleration(float x, float y) {
+        this.acceleration.set(x, y);
+    }
+    
+    /**
+     * 设置上一步使用的加速度（速度 Verlet 积分使用）
+     */
+    public void setLastAcceleration(Vector2 lastAcceleration) {
+        this.lastAcceleration.set(lastAcceleration);
+    }
+    
+    /**
+     * 设置上一步使用的加速度
+     */
+    public void setLastAcceleration(float x, float y) {
+        this.lastAcceleration.set(x, y);
     }
     
     /**
      * 设置重力
      */
     public void setGravity(Vector2 gravity) {
-        this.gravity = new Vector2(gravity);
+        this.gravity.set(gravity);
     }
     
     /**
@@ -119,12 +147,19 @@ public class PhysicsComponent extends Component<PhysicsComponent> {
     }
     
     /**
-     * 设置摩擦力
+     * 设置摩擦力（每 1/60 秒保留的速度比例，由物理系统按实际时间换算）
      */
     public void setFriction(float friction) {
         this.friction = Math.max(0, Math.min(1, friction));
     }
     
+    /**
+     * 设置弹性系数（0 为完全非弹性，1 为完全弹性，接触双方取较大值）
+     */
+    public void setRestitution(float restitution) {
+        this.restitution = Math.max(0, Math.min(1, restitution));
+    }
+    
     /**
      * 设置质量
      */
@@ -132,15 +167,86 @@ public class PhysicsComponent extends Component<PhysicsComponent> {
         this.mass = Math.max(0.1f, mass);
     }
     
+    /**
+     * 唤醒物体（施加力、冲量或设置速度时自动调用）
+     */
+    public void wake() {
+        if (sleeping) {
+            sleeping = false;
+            sleepTime = 0;
+        }
+    }
+    
+    /**
+     * 使物体进入休眠：清除速度与加速度，物理系统和碰撞宽相位不再更新它
+     */
+    public void sleep() {
+        if (!allowSleep) return;
+        sleeping = true;
+        velocity.set(0, 0);
+        acceleration.set(0, 0);
+        lastAcceleration.set(0, 0);
+    }
+    
+    /**
+     * 累计静止时间：速度超过阈值时清零
+     * @return 累计后的静止时间
+     */
+    public float updateSleepTime(float deltaTime, float velocityThreshold) {
+        if (velocity.x * velocity.x + velocity.y * velocity.y > velocityThreshold * velocityThreshold) {
+            sleepTime = 0;
+        } else {
+            sleepTime += deltaTime;
+        }
+        return sleepTime;
+    }
+    
+    /**
+     * 允许/禁止自动休眠
+     */
+    public void setAllowSleep(boolean allowSleep) {
+        this.allowSleep = allowSleep;
+        if (!allowSleep) {
+            wake();
+            sleepTime = 0;
+        }
+    }
+    
     // Getters
     public Vector2 getVelocity() {
         return new Vector2(velocity);
     }
     
+    /**
+     * 把速度复制到 out 中（不分配对象）
+     */
+    public Vector2 getVelocity(Vector2 out) {
+        return out.set(velocity);
+    }
+    
     public Vector2 getAcceleration() {
         return new Vector2(acceleration);
     }
     
+    /**
+     * 把本帧的总加速度（包括启用时的重力）复制到 out 中
+     */
+    public Vector2 getTotalAcceleration(Vector2 out) {
+        out.set(acceleration);
+        return useGravity ? out.addLocal(gravity) : out;
+    }
+    
+    public Vector2 getLastAcceleration() {
+        return new Vector2(lastAcceleration);
+    }
+    
+    /**
+     * 把上一步使用的加速度复制到 out 中
+     */
+    public Vector2 getLastAcceleration(Vector2 out) {
+        return out.set(lastAcceleration);
+    }
+    
     public float getMass() {
         return mass;
     }
@@ -149,6 +255,10 @@ public class PhysicsComponent extends Component<PhysicsComponent> {
         return friction;
     }
     
+    public float getRestitution() {
+        return restitution;
+    }
+    
     public boolean isUseGravity() {
         return useGravity;
     }
@@ -156,4 +266,26 @@ public class PhysicsComponent extends Component<PhysicsComponent> {
     public Vector2 getGravity() {
         return new Vector2(gravity);
     }
+    
+    public boolean isAllowSleep() {
+        return allowSleep;
+    }
+    
+    public boolean isSleeping() {
+        return sleeping;
+    }
+    
+    public float getSleepTime() {
+        return sleepTime;
+    }
+    
+    /**
+     * 获取定点物理模式的状态
+     */
+    public FixedPointState getFixedState() {
+        if (fixedState == null) {
+            fixedState = new FixedPointState();
+        }
+        return fixedState;
+    }
 }
@@ -14,6 +14,7 @@ public class RenderComponent extends Component<RenderComponent> {
     private Vector2 size;
     private Color color;
     private boolean visible;
+    private final Vector2 scratchPosition = new Vector2();
     
     public enum RenderType {
         RECTANGLE,
@@ -75,7 +76,7 @@ public class RenderComponent extends Component<RenderComponent> {
             return;
         }
         
-        Vector2 position = transform.getPosition();
+        Vector2 position = transform.getPosition(scratchPosition);
         
         switch (renderType) {
             case RECTANGLE:
@@ -48,14 +48,14 @@ public class TransformComponent extends Component<TransformComponent> {
      * 移动到指定位置
      */
     public void moveTo(Vector2 newPosition) {
-        this.position = new Vector2(newPosition);
+        this.position.set(newPosition);
     }
     
     /**
      * 移动相对距离
      */
     public void translate(Vector2 delta) {
-        this.position = position.add(delta);
+        this.position.addLocal(delta);
     }
     
     /**
@@ -76,14 +76,14 @@ public class TransformComponent extends Component<TransformComponent> {
      * 缩放
      */
     public void scale(Vector2 scaleFactor) {
-        this.scale = new Vector2(this.scale.x * scaleFactor.x, this.scale.y * scaleFactor.y);
+        this.scale.set(this.scale.x * scaleFactor.x, this.scale.y * scaleFactor.y);
     }
     
     /**
      * 设置缩放
      */
     public void setScale(Vector2 newScale) {
-        this.scale = new Vector2(newScale);
+        this.scale.set(newScale);
     }
     
     // Getters and Setters
@@ -91,8 +91,19 @@ public class TransformComponent extends Component<TransformComponent> {
         return new Vector2(position);
     }
     
+    /**
+     * 把位置复制到 out 中（不分配对象）
+     */
+    public Vector2 getPosition(Vector2 out) {
+        return out.set(position);
+    }
+    
     public void setPosition(Vector2 position) {
-        this.position = new Vector2(position);
+        this.position.set(position);
+    }
+    
+    public void setPosition(float x, float y) {
+        this.position.set(x, y);
     }
     
     public Vector2 getScale() {
@@ -0,0 +1,67 @@
+package com.gameengine.core;
+
+import com.gameengine.math.FixedPoint;
+
+/**
+ * 定点物理模式下物体的权威状态
+ * 位置和速度以 16.16 定点数保存并逐帧积分，浮点值只是写回组件的副本；
+ * 如果发现组件里的浮点值与上次写回的不同（游戏代码直接修改过），就从浮点值重新导入
+ */
+public class FixedPointState {
+    public int x, y;
+    public int vx, vy;
+    
+    // 上次写回组件的浮点值
+    private float exportedX, exportedY;
+    private float exportedVx, exportedVy;
+    private boolean valid;
+    
+    // 阻尼缓存：摩擦系数与步长不变时复用上次的结果
+    private float cachedFriction = -1;
+    private int cachedStep;
+    private int cachedDamping;
+    
+    /**
+     * 与组件中的浮点值同步：被外部修改过时重新导入
+     */
+    public void sync(float px, float py, float pvx, float pvy) {
+        if (valid && px == exportedX && py == exportedY && pvx == exportedVx && pvy == exportedVy) {
+            return;
+        }
+        x = FixedPoint.fromFloat(px);
+        y = FixedPoint.fromFloat(py);
+        vx = FixedPoint.fromFloat(pvx);
+        vy = FixedPoint.fromFloat(pvy);
+        valid = true;
+    }
+    
+    /**
+     * 记录写回组件的浮点值
+     */
+    public void markExported(float px, float py, float pvx, float pvy) {
+        exportedX = px;
+        exportedY = py;
+        exportedVx = pvx;
+        exportedVy = pvy;
+    }
+    
+    /**
+     * 每个子步的速度保留系数（定点数），friction 为每 1/60 秒保留的比例
+     */
+    public int damping(float friction, int step, float referenceRate) {
+        if (friction != cachedFriction || step != cachedStep) {
+            cachedFriction = friction;
+            cachedStep = step;
+            // StrictMath 保证各平台结果一致
+            cachedDamping = FixedPoint.fromFloat((float) StrictMath.pow(friction, FixedPoint.toFloat(step) * referenceRate));
+        }
+        return cachedDamping;
+    }
+    
+    /**
+     * 丢弃定点状态，下次积分时从浮点值重新导入
+     */
+    public void invalidate() {
+        valid = false;
+    }
+}
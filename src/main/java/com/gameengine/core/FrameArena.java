@@ -0,0 +1,268 @@
+package com.gameengine.core;
+
+import com.gameengine.math.Vector2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * 帧内存池
+ * 分发只在当前帧内有效的临时向量、int/float 数组和列表，帧末由 reset() 统一回收，下一帧复用，
+ * 稳定运行时不再产生新的对象。每个线程一个实例，通过 current() 获取；游戏引擎在每帧渲染之后重置主线程的实例
+ *
+ * 取得的对象不能保存到帧外。调试模式下（setDebug 或 -Dgameengine.arena.debug=true）帧末不复用已分发的对象：
+ * 列表被标记为失效，之后再访问会抛出异常并附带分发位置；向量和数组被填入 NaN / Integer.MIN_VALUE，便于发现泄漏
+ *
+ * 池满（通常是没有调用 reset）时退化为普通分配，并计入 getOverflowCount
+ */
+public final class FrameArena {
+    private static final ThreadLocal<FrameArena> CURRENT = ThreadLocal.withInitial(FrameArena::new);
+    private static volatile boolean debug = Boolean.getBoolean("gameengine.arena.debug");
+
+    /** 每种对象最多缓存的数量 */
+    private static final int MAX_VECTORS = 1 << 14;
+    private static final int MAX_ARRAYS = 256;
+    private static final int MAX_LISTS = 1024;
+
+    private Vector2[] vectors = new Vector2[64];
+    private int vectorCount;
+    private int[][] intArrays = new int[16][];
+    private int intArrayCount;
+    private float[][] floatArrays = new float[16][];
+    private int floatArrayCount;
+    private FrameList<?>[] lists = new FrameList<?>[16];
+    private int listCount;
+
+    private long frame;
+    private int overflowCount;
+    private int highWater;
+
+    private FrameArena() {
+    }
+
+    /**
+     * 获取当前线程的帧内存池
+     */
+    public static FrameArena current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 启用/禁用调试模式（泄漏检测）
+     */
+    public static void setDebug(boolean enabled) {
+        debug = enabled;
+    }
+
+    public static boolean isDebug() {
+        return debug;
+    }
+
+    /**
+     * 获取临时向量（初始为零向量）
+     */
+    public Vector2 vector() {
+        return vector(0, 0);
+    }
+
+    /**
+     * 获取临时向量
+     */
+    public Vector2 vector(float x, float y) {
+        if (vectorCount == MAX_VECTORS) {
+            overflowCount++;
+            return new Vector2(x, y);
+        }
+        if (vectorCount == vectors.length) {
+            vectors = Arrays.copyOf(vectors, vectorCount * 2);
+        }
+        Vector2 v = vectors[vectorCount];
+        if (v == null) {
+            v = new Vector2();
+            vectors[vectorCount] = v;
+        }
+        vectorCount++;
+        return v.set(x, y);
+    }
+
+    /**
+     * 获取长度不小于 minLength 的临时 int 数组（内容未清零）
+     */
+    public int[] ints(int minLength) {
+        if (intArrayCount == MAX_ARRAYS) {
+            overflowCount++;
+            return new int[minLength];
+        }
+        if (intArrayCount == intArrays.length) {
+            intArrays = Arrays.copyOf(intArrays, intArrayCount * 2);
+        }
+        int[] array = intArrays[intArrayCount];
+        if (array == null || array.length < minLength) {
+            array = new int[capacityFor(minLength)];
+            intArrays[intArrayCount] = array;
+        }
+        intArrayCount++;
+        return array;
+    }
+
+    /**
+     * 获取长度不小于 minLength 的临时 float 数组（内容未清零）
+     */
+    public float[] floats(int minLength) {
+        if (floatArrayCount == MAX_ARRAYS) {
+            overflowCount++;
+            return new float[minLength];
+        }
+        if (floatArrayCount == floatArrays.length) {
+            floatArrays = Arrays.copyOf(floatArrays, floatArrayCount * 2);
+        }
+        float[] array = floatArrays[floatArrayCount];
+        if (array == null || array.length < minLength) {
+            array = new float[capacityFor(minLength)];
+            floatArrays[floatArrayCount] = array;
+        }
+        floatArrayCount++;
+        return array;
+    }
+
+    /**
+     * 获取空的临时列表
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> list() {
+        if (listCount == MAX_LISTS) {
+            overflowCount++;
+            return new ArrayList<>();
+        }
+        if (listCount == lists.length) {
+            lists = Arrays.copyOf(lists, listCount * 2);
+        }
+        FrameList<T> list = (FrameList<T>) lists[listCount];
+        if (list == null) {
+            list = new FrameList<>();
+            lists[listCount] = list;
+        }
+        listCount++;
+        if (debug) {
+            list.origin = new Throwable("frame list allocated in frame " + frame);
+        }
+        return list;
+    }
+
+    /**
+     * 帧末回收本帧分发的所有对象
+     */
+    public void reset() {
+        highWater = Math.max(highWater, vectorCount + intArrayCount + floatArrayCount + listCount);
+        if (debug) {
+            retire();
+        } else {
+            for (int i = 0; i < listCount; i++) {
+                lists[i].clear();
+            }
+        }
+        vectorCount = 0;
+        intArrayCount = 0;
+        floatArrayCount = 0;
+        listCount = 0;
+        frame++;
+    }
+
+    // 调试模式：让本帧分发的对象失效并从池中移除，下一帧重新分配
+    private void retire() {
+        for (int i = 0; i < vectorCount; i++) {
+            vectors[i].set(Float.NaN, Float.NaN);
+            vectors[i] = null;
+        }
+        for (int i = 0; i < intArrayCount; i++) {
+            Arrays.fill(intArrays[i], Integer.MIN_VALUE);
+            intArrays[i] = null;
+        }
+        for (int i = 0; i < floatArrayCount; i++) {
+            Arrays.fill(floatArrays[i], Float.NaN);
+            floatArrays[i] = null;
+        }
+        for (int i = 0; i < listCount; i++) {
+            lists[i].clear();
+            lists[i].stale = true;
+            lists[i] = null;
+        }
+    }
+
+    private static int capacityFor(int minLength) {
+        return Math.max(16, Integer.highestOneBit(Math.max(1, minLength - 1)) << 1);
+    }
+
+    /**
+     * 获取当前帧序号（每次 reset 加一）
+     */
+    public long getFrame() {
+        return frame;
+    }
+
+    /**
+     * 获取单帧分发对象数量的峰值
+     */
+    public int getHighWater() {
+        return highWater;
+    }
+
+    /**
+     * 获取池满后退化为普通分配的次数
+     */
+    public int getOverflowCount() {
+        return overflowCount;
+    }
+
+    /**
+     * 帧内列表：调试模式下帧末失效，失效后访问会抛出异常
+     */
+    private static final class FrameList<T> extends ArrayList<T> {
+        private static final long serialVersionUID = 1L;
+
+        boolean stale;
+        Throwable origin;
+
+        FrameList() {
+            super(16);
+        }
+
+        private void check() {
+            if (stale) {
+                throw new IllegalStateException("frame list used after the end of its frame", origin);
+            }
+        }
+
+        @Override
+        public boolean add(T element) {
+            check();
+            return super.add(element);
+        }
+
+        @Override
+        public T get(int index) {
+            check();
+            return super.get(index);
+        }
+
+        @Override
+        public int size() {
+            check();
+            return super.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            check();
+            return super.isEmpty();
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            check();
+            return super.iterator();
+        }
+    }
+}
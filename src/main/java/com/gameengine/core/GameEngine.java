@@ -71,6 +71,8 @@ public class GameEngine {
             if (running) {
                 update();
                 render();
+                // 帧末回收本帧的临时对象
+                FrameArena.current().reset();
             }
         });
         
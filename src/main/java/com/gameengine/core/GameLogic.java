@@ -2,6 +2,13 @@ package com.gameengine.core;
 
 import java.util.List;
 
+import com.gameengine.collision.BroadphaseType;
+import com.gameengine.collision.CollisionWorld;
+import com.gameengine.collision.ContactBuffer;
+import com.gameengine.collision.ContactListener;
+import com.gameengine.collision.ContactSolver;
+import com.gameengine.collision.SpatialQuery;
+import com.gameengine.components.ColliderComponent;
 import com.gameengine.components.PhysicsComponent;
 import com.gameengine.components.RenderComponent;
 import com.gameengine.components.TransformComponent;
@@ -20,7 +27,8 @@ public class GameLogic {
     private boolean anyKeyPressed = false;
     private int playerHealth = 20;
     private boolean gameOver = false;
-    private Vector2 lastMovementDirection = new Vector2(1, 0); // 默认朝右
+    private final Vector2 lastMovementDirection = new Vector2(1, 0); // 默认朝右
+    private final Vector2 movement = new Vector2();
     
     // 炸弹系统
     private float bombCooldown = 0f; // 当前CD时间
@@ -29,10 +37,62 @@ public class GameLogic {
     private static final int BOMB_DAMAGE = 8; // 炸弹伤害
     private boolean bombKeyPressed = false; // J键防抖
     
+    // 碰撞层
+    public static final int LAYER_PLAYER = 1;
+    public static final int LAYER_ENEMY = 2;
+    public static final int LAYER_BULLET = 3;
+    public static final int LAYER_BOMB = 4;
+    
+    // 世界范围
+    public static final float WORLD_WIDTH = 800;
+    public static final float WORLD_HEIGHT = 600;
+    
+    // 物理系统：每帧唯一的积分入口，积分后按各层的世界边界统一处理越界
+    private final PhysicsSystem physicsSystem;
+    
+    // 碰撞宽相位：所有碰撞查询共用，接触响应由碰撞层掩码决定
+    private final CollisionWorld collisionWorld;
+    
+    // 接触求解：按质量分配冲量，玩家被敌人弹开、敌人之间互相推开
+    private final ContactSolver contactSolver;
+    
+    // 空间查询：炸弹范围等按区域查找对象，结果写入复用的数组
+    private final SpatialQuery spatialQuery;
+    private GameObject[] blastTargets = new GameObject[64];
+    
     public GameLogic(Scene scene, Renderer renderer) {
         this.scene = scene;
         this.inputManager = InputManager.getInstance();
         this.renderer = renderer;
+        scene.getParticleEffects().setRenderer(renderer);
+        this.physicsSystem = new PhysicsSystem(scene, (int) WORLD_WIDTH, (int) WORLD_HEIGHT);
+        this.physicsSystem.setWorldBounds(createWorldBounds());
+        this.collisionWorld = new CollisionWorld(scene);
+        // 敌人会被 15~200 像素的不同半径查询，用 AABB 树；子弹数量多且尺寸一致，用默认的哈希网格
+        this.collisionWorld.setBroadphase(LAYER_ENEMY, BroadphaseType.AABB_TREE);
+        this.physicsSystem.setCollisionWorld(collisionWorld);
+        this.spatialQuery = new SpatialQuery(collisionWorld);
+        this.contactSolver = new ContactSolver();
+        this.contactSolver.setResponse(LAYER_BULLET, LAYER_ENEMY, false); // 子弹命中后直接销毁，不推动敌人
+        this.collisionWorld.addContactListener(new ContactListener() {
+            @Override
+            public void onContactBegin(ContactBuffer contacts) {
+                handleContactBegin(contacts);
+            }
+        });
+    }
+    
+    /**
+     * 各层的世界边界：玩家限制在屏幕内，敌人可以在屏幕外 50 像素内反弹，
+     * 子弹贴着屏幕边缘反弹
+     */
+    private static WorldBounds createWorldBounds() {
+        WorldBounds bounds = new WorldBounds(0, 0, WORLD_WIDTH - PhysicsSystem.DEFAULT_BOUNDARY_MARGIN,
+                WORLD_HEIGHT - PhysicsSystem.DEFAULT_BOUNDARY_MARGIN);
+        bounds.setLayer(LAYER_PLAYER, 0, 0, WORLD_WIDTH - 20, WORLD_HEIGHT - 20, WorldBounds.Policy.CLAMP);
+        bounds.setLayer(LAYER_ENEMY, -50, -50, WORLD_WIDTH + 50, WORLD_HEIGHT + 50, WorldBounds.Policy.BOUNCE);
+        bounds.setLayer(LAYER_BULLET, 4, 4, WORLD_WIDTH - 4, WORLD_HEIGHT - 4, WorldBounds.Policy.BOUNCE);
+        return bounds;
     }
     
     /**
@@ -51,7 +111,7 @@ public class GameLogic {
         
         if (transform == null || physics == null) return;
         
-        Vector2 movement = new Vector2();
+        movement.set(0, 0);
         
         if (inputManager.isKeyPressed(87) || inputManager.isKeyPressed(38)) { // W或上箭头
             movement.y -= 1;
@@ -67,10 +127,10 @@ public class GameLogic {
         }
         
         if (movement.magnitude() > 0) {
-            movement = movement.normalize();
+            movement.normalizeLocal();
             // 更新最后的移动方向（支持斜向）
-            lastMovementDirection = new Vector2(movement.x, movement.y);
-            physics.setVelocity(movement.multiply(200));
+            lastMovementDirection.set(movement);
+            physics.setVelocity(movement.x * 200, movement.y * 200);
         }
         
         // 开火：H键或空格键
@@ -96,14 +156,6 @@ public class GameLogic {
         if (gameOver && inputManager.isKeyPressed(82)) { // R键
             restartGame();
         }
-        
-        // 边界检查
-        Vector2 pos = transform.getPosition();
-        if (pos.x < 0) pos.x = 0;
-        if (pos.y < 0) pos.y = 0;
-        if (pos.x > 800 - 20) pos.x = 800 - 20;
-        if (pos.y > 600 - 20) pos.y = 600 - 20;
-        transform.setPosition(pos);
     }
     
     /**
@@ -116,56 +168,18 @@ public class GameLogic {
             if (bombCooldown < 0) bombCooldown = 0;
         }
         
+        // 统一积分，越界由世界边界处理
+        physicsSystem.update(deltaTime);
+        
+        // 敌人随机改变方向
         List<PhysicsComponent> physicsComponents = scene.getComponents(PhysicsComponent.class);
         for (PhysicsComponent physics : physicsComponents) {
             GameObject owner = physics.getOwner();
-            TransformComponent transform = owner.getComponent(TransformComponent.class);
-            if (transform != null) {
-                Vector2 pos = transform.getPosition();
-                Vector2 velocity = physics.getVelocity();
-                
-                // 敌人随机改变方向
-                if ("Enemy".equals(owner.getName()) && Math.random() < 0.02) { // 2%概率改变方向
-                    velocity.x = (float)((Math.random() - 0.5) * 200); // 增加速度范围
-                    velocity.y = (float)((Math.random() - 0.5) * 200);
-                    physics.setVelocity(velocity);
-                }
-                
-                // 边界反弹 - 敌人可以在更大范围内移动
-                if ("Enemy".equals(owner.getName())) {
-                    if (pos.x <= -50 || pos.x >= 850) {
-                        velocity.x = -velocity.x;
-                        physics.setVelocity(velocity);
-                    }
-                    if (pos.y <= -50 || pos.y >= 650) {
-                        velocity.y = -velocity.y;
-                        physics.setVelocity(velocity);
-                    }
-                    
-                    // 确保在扩展边界内
-                    if (pos.x < -50) pos.x = -50;
-                    if (pos.y < -50) pos.y = -50;
-                    if (pos.x > 850) pos.x = 850;
-                    if (pos.y > 650) pos.y = 650;
-                    transform.setPosition(pos);
-                } else {
-                    // 玩家边界检查
-                    if (pos.x <= 0 || pos.x >= 800 - 15) {
-                        velocity.x = -velocity.x;
-                        physics.setVelocity(velocity);
-                    }
-                    if (pos.y <= 0 || pos.y >= 600 - 15) {
-                        velocity.y = -velocity.y;
-                        physics.setVelocity(velocity);
-                    }
-                    
-                    // 确保在边界内
-                    if (pos.x < 0) pos.x = 0;
-                    if (pos.y < 0) pos.y = 0;
-                    if (pos.x > 800 - 15) pos.x = 800 - 15;
-                    if (pos.y > 600 - 15) pos.y = 600 - 15;
-                    transform.setPosition(pos);
-                }
+            if (owner != null && "Enemy".equals(owner.getName()) && Math.random() < 0.02) { // 2%概率改变方向
+                physics.setVelocity(
+                    (float)((Math.random() - 0.5) * 200), // 增加速度范围
+                    (float)((Math.random() - 0.5) * 200)
+                );
             }
         }
     }
@@ -176,82 +190,64 @@ public class GameLogic {
     public void checkCollisions() {
         if (gameOver) return; // 游戏结束时不检查碰撞
         
-        // 玩家与敌人碰撞：减少血量并弹开
-        List<GameObject> players = scene.findGameObjectsByComponent(TransformComponent.class);
-        if (!players.isEmpty()) {
-            GameObject player = players.get(0);
-            TransformComponent playerTransform = player.getComponent(TransformComponent.class);
-            PhysicsComponent playerPhysics = player.getComponent(PhysicsComponent.class);
-            if (playerTransform != null && playerPhysics != null) {
-                for (GameObject obj : scene.getGameObjects()) {
-                    if ("Enemy".equals(obj.getName())) {
-                        TransformComponent enemyTransform = obj.getComponent(TransformComponent.class);
-                        PhysicsComponent enemyPhysics = obj.getComponent(PhysicsComponent.class);
-                        if (enemyTransform != null && enemyPhysics != null) {
-                            float distance = playerTransform.getPosition().distance(enemyTransform.getPosition());
-                            if (distance < 25) {
-                                // 减少玩家血量
-                                playerHealth--;
-                                System.out.println("血量: " + playerHealth + "/20");
-                                if (playerHealth <= 0) {
-                                    gameOver = true;
-                                    System.out.println("游戏结束！按R键重新开始");
-                                }
-                                
-                                // 计算碰撞方向
-                                Vector2 playerPos = playerTransform.getPosition();
-                                Vector2 enemyPos = enemyTransform.getPosition();
-                                Vector2 collisionDirection = new Vector2(playerPos.x - enemyPos.x, playerPos.y - enemyPos.y);
-                                if (collisionDirection.magnitude() > 0) {
-                                    collisionDirection = collisionDirection.normalize();
-                                    
-                                    // 弹开玩家
-                                    Vector2 playerVelocity = playerPhysics.getVelocity();
-                                    playerVelocity = playerVelocity.add(collisionDirection.multiply(300));
-                                    playerPhysics.setVelocity(playerVelocity);
-                                    
-                                    // 弹开敌人
-                                    Vector2 enemyVelocity = enemyPhysics.getVelocity();
-                                    enemyVelocity = enemyVelocity.add(collisionDirection.multiply(-200));
-                                    enemyPhysics.setVelocity(enemyVelocity);
-                                }
-                                break;
-                            }
-                        }
-                    }
-                }
+        // 同步宽相位并生成接触，新接触通过 handleContactBegin 分批响应；本帧后续的查询共用同一份数据
+        collisionWorld.update();
+        
+        // 对仍然有效的接触做物理响应
+        contactSolver.solve(collisionWorld.getContacts());
+    }
+    
+    /**
+     * 处理本帧新开始的接触，按碰撞层分派
+     */
+    private void handleContactBegin(ContactBuffer contacts) {
+        for (int i = 0; i < contacts.size(); i++) {
+            if (gameOver) return;
+            GameObject a = contacts.getObjectA(i);
+            GameObject b = contacts.getObjectB(i);
+            if (!a.isActive() || !b.isActive()) continue; // 本批次中已被销毁
+            
+            int order = contacts.match(i, LAYER_PLAYER, LAYER_ENEMY);
+            if (order != 0) {
+                onPlayerHit(order > 0 ? a : b, order > 0 ? b : a);
+                continue;
             }
-        }
-
-        // 子弹与敌人碰撞：减少敌人血量
-        List<GameObject> allObjects = scene.getGameObjects();
-        for (GameObject objBullet : allObjects) {
-            if (!"Bullet".equals(objBullet.getName())) continue;
-            TransformComponent bulletT = objBullet.getComponent(TransformComponent.class);
-            if (bulletT == null) continue;
-            for (GameObject objEnemy : allObjects) {
-                if (!"Enemy".equals(objEnemy.getName())) continue;
-                TransformComponent enemyT = objEnemy.getComponent(TransformComponent.class);
-                if (enemyT == null) continue;
-                float dist = bulletT.getPosition().distance(enemyT.getPosition());
-                if (dist < 15) {
-                    // 减少敌人血量
-                    int enemyHealth = getEnemyHealth(objEnemy);
-                    enemyHealth--;
-                    setEnemyHealth(objEnemy, enemyHealth);
-                    
-                    // 移除子弹
-                    objBullet.destroy();
-                    
-                    // 如果敌人血量归零，移除敌人
-                    if (enemyHealth <= 0) {
-                        objEnemy.destroy();
-                    }
-                    break;
-                }
+            order = contacts.match(i, LAYER_BULLET, LAYER_ENEMY);
+            if (order != 0) {
+                onBulletHit(order > 0 ? a : b, order > 0 ? b : a);
             }
         }
     }
+    
+    /**
+     * 玩家与敌人碰撞：减少血量（弹开由接触求解器按质量和弹性处理）
+     */
+    private void onPlayerHit(GameObject player, GameObject enemy) {
+        playerHealth--;
+        System.out.println("血量: " + playerHealth + "/20");
+        if (playerHealth <= 0) {
+            gameOver = true;
+            System.out.println("游戏结束！按R键重新开始");
+        }
+    }
+    
+    /**
+     * 子弹与敌人碰撞：减少敌人血量
+     */
+    private void onBulletHit(GameObject bullet, GameObject enemy) {
+        // 减少敌人血量
+        int enemyHealth = getEnemyHealth(enemy);
+        enemyHealth--;
+        setEnemyHealth(enemy, enemyHealth);
+        
+        // 移除子弹
+        bullet.destroy();
+        
+        // 如果敌人血量归零，移除敌人
+        if (enemyHealth <= 0) {
+            enemy.destroy();
+        }
+    }
 
     private void spawnBullet(Vector2 playerPos, Vector2 direction) {
         if (renderer == null) return;
@@ -263,53 +259,21 @@ public class GameLogic {
         Vector2 normalizedDirection = direction.normalize();
 
         GameObject bullet = new GameObject("Bullet") {
-            private Vector2 startPosition;
-            private final float maxDistance = 5 * 800; // 5个屏幕宽度的距离
-            private boolean initialized = false;
+            private float distance;
+            private final Vector2 velocity = new Vector2();
+            private final float maxDistance = 5 * WORLD_WIDTH; // 5个屏幕宽度的距离
             
             @Override
             public void update(float deltaTime) {
                 super.update(deltaTime);
-                updateComponents(deltaTime);
                 
-                TransformComponent transform = getComponent(TransformComponent.class);
                 PhysicsComponent physics = getComponent(PhysicsComponent.class);
-                if (transform != null && physics != null) {
-                    if (!initialized) {
-                        startPosition = new Vector2(transform.getPosition());
-                        initialized = true;
-                    }
-                    
-                    // 检查飞行距离
-                    Vector2 currentPos = transform.getPosition();
-                    float distance = startPosition.distance(currentPos);
+                if (physics != null) {
+                    // 累计飞行路程（子弹在边界内反弹，离起点的直线距离不会达到上限）
+                    distance += physics.getVelocity(velocity).magnitude() * deltaTime;
                     if (distance >= maxDistance) {
                         destroy();
-                        return;
                     }
-                    
-                    // 边界反弹
-                    Vector2 pos = transform.getPosition();
-                    Vector2 velocity = physics.getVelocity();
-                    
-                    // 检查左右边界反弹
-                    if (pos.x <= 4 || pos.x >= 796) {
-                        velocity.x = -velocity.x;
-                        physics.setVelocity(velocity);
-                    }
-                    
-                    // 检查上下边界反弹
-                    if (pos.y <= 4 || pos.y >= 596) {
-                        velocity.y = -velocity.y;
-                        physics.setVelocity(velocity);
-                    }
-                    
-                    // 确保子弹在边界内
-                    if (pos.x < 4) pos.x = 4;
-                    if (pos.y < 4) pos.y = 4;
-                    if (pos.x > 796) pos.x = 796;
-                    if (pos.y > 596) pos.y = 596;
-                    transform.setPosition(pos);
                 }
             }
         };
@@ -324,6 +288,9 @@ public class GameLogic {
                 new RenderComponent.Color(1.0f, 0.0f, 0.0f, 1.0f) // 红色
         ));
         r.setRenderer(renderer);
+        ColliderComponent c = bullet.addComponent(new ColliderComponent(5, LAYER_BULLET));
+        c.setMask(1 << LAYER_ENEMY);
+        c.setFast(true);
 
         scene.addGameObject(bullet);
     }
@@ -342,7 +309,6 @@ public class GameLogic {
             @Override
             public void update(float deltaTime) {
                 super.update(deltaTime);
-                updateComponents(deltaTime);
                 
                 lifetime += deltaTime;
                 
@@ -370,24 +336,28 @@ public class GameLogic {
                 Vector2 bombPos = transform.getPosition();
                 
                 // 对范围内的所有敌人造成伤害
-                List<GameObject> allObjects = scene.getGameObjects();
-                for (GameObject obj : allObjects) {
-                    if ("Enemy".equals(obj.getName())) {
-                        TransformComponent enemyTransform = obj.getComponent(TransformComponent.class);
-                        if (enemyTransform != null) {
-                            float distance = bombPos.distance(enemyTransform.getPosition());
-                            if (distance <= BOMB_RADIUS) {
-                                // 造成5点伤害
-                                int enemyHealth = getEnemyHealth(obj);
-                                enemyHealth -= BOMB_DAMAGE;
-                                setEnemyHealth(obj, enemyHealth);
-                                
-                                // 如果血量归零则摧毁
-                                if (enemyHealth <= 0) {
-                                    obj.destroy();
-                                }
-                            }
-                        }
+                int hits = spatialQuery.queryRadius(bombPos.x, bombPos.y, BOMB_RADIUS, 1 << LAYER_ENEMY, null, blastTargets);
+                while (hits == blastTargets.length) {
+                    blastTargets = new GameObject[blastTargets.length * 2];
+                    hits = spatialQuery.queryRadius(bombPos.x, bombPos.y, BOMB_RADIUS, 1 << LAYER_ENEMY, null, blastTargets);
+                }
+                for (int i = 0; i < hits; i++) {
+                    GameObject obj = blastTargets[i];
+                    blastTargets[i] = null;
+                    // 空间查询按碰撞圆表面计算距离，这里保持原有规则：敌人中心在爆炸半径内才受伤
+                    TransformComponent targetTransform = obj.getComponent(TransformComponent.class);
+                    if (targetTransform == null
+                            || targetTransform.getPosition().distanceSquared(bombPos) > BOMB_RADIUS * BOMB_RADIUS) {
+                        continue;
+                    }
+                    // 造成伤害
+                    int enemyHealth = getEnemyHealth(obj);
+                    enemyHealth -= BOMB_DAMAGE;
+                    setEnemyHealth(obj, enemyHealth);
+                    
+                    // 如果血量归零则摧毁
+                    if (enemyHealth <= 0) {
+                        obj.destroy();
                     }
                 }
                 
@@ -396,46 +366,8 @@ public class GameLogic {
             }
             
             private void createExplosionEffect(Vector2 pos) {
-                // 创建多个扩散的粒子效果
-                for (int i = 0; i < 12; i++) {
-                    float angle = (float) (i * Math.PI * 2 / 12);
-                    Vector2 direction = new Vector2(
-                        (float) Math.cos(angle),
-                        (float) Math.sin(angle)
-                    );
-                    createExplosionParticle(pos, direction);
-                }
-            }
-            
-            private void createExplosionParticle(Vector2 pos, Vector2 direction) {
-                GameObject particle = new GameObject("ExplosionParticle") {
-                    private float lifetime = 0f;
-                    
-                    @Override
-                    public void update(float deltaTime) {
-                        super.update(deltaTime);
-                        updateComponents(deltaTime);
-                        
-                        lifetime += deltaTime;
-                        if (lifetime >= 0.5f) {
-                            destroy();
-                        }
-                    }
-                };
-                
-                particle.addComponent(new TransformComponent(new Vector2(pos)));
-                PhysicsComponent p = particle.addComponent(new PhysicsComponent(0.1f));
-                p.setVelocity(direction.multiply(200));
-                p.setFriction(0.9f);
-                
-                RenderComponent r = particle.addComponent(new RenderComponent(
-                    RenderComponent.RenderType.CIRCLE,
-                    new Vector2(6, 6),
-                    new RenderComponent.Color(1.0f, 0.5f, 0.0f, 1.0f) // 橙色爆炸效果
-                ));
-                r.setRenderer(renderer);
-                
-                scene.addGameObject(particle);
+                // 爆炸碎片走粒子数据路径，不创建游戏对象
+                scene.getParticleEffects().spawn(ParticleEffects.Type.EXPLOSION, pos.x, pos.y);
             }
         };
 
@@ -452,6 +384,8 @@ public class GameLogic {
             new RenderComponent.Color(1.0f, 0.84f, 0.0f, 1.0f) // 金黄色
         ));
         r.setRenderer(renderer);
+        ColliderComponent c = bomb.addComponent(new ColliderComponent(7.5f, LAYER_BOMB));
+        c.setMask(0); // 爆炸伤害由范围查询结算
 
         scene.addGameObject(bomb);
     }
@@ -592,6 +526,34 @@ public class GameLogic {
         }
     }
     
+    /**
+     * 获取物理系统
+     */
+    public PhysicsSystem getPhysicsSystem() {
+        return physicsSystem;
+    }
+    
+    /**
+     * 获取碰撞世界
+     */
+    public CollisionWorld getCollisionWorld() {
+        return collisionWorld;
+    }
+    
+    /**
+     * 获取空间查询服务
+     */
+    public SpatialQuery getSpatialQuery() {
+        return spatialQuery;
+    }
+    
+    /**
+     * 获取接触求解器
+     */
+    public ContactSolver getContactSolver() {
+        return contactSolver;
+    }
+    
     /**
      * 获取游戏状态
      */
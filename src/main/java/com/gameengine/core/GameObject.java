@@ -72,7 +72,8 @@ public class GameObject {
      */
     @SuppressWarnings("unchecked")
     public <T extends Component<T>> T getComponent(Class<T> componentType) {
-        for (Component<?> component : components) {
+        for (int i = 0; i < components.size(); i++) {
+            Component<?> component = components.get(i);
             if (componentType.isInstance(component)) {
                 return (T) component;
             }
@@ -84,7 +85,8 @@ public class GameObject {
      * 检查是否有指定类型的组件
      */
     public <T extends Component<T>> boolean hasComponent(Class<T> componentType) {
-        for (Component<?> component : components) {
+        for (int i = 0; i < components.size(); i++) {
+            Component<?> component = components.get(i);
             if (componentType.isInstance(component)) {
                 return true;
             }
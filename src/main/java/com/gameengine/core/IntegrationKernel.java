@@ -0,0 +1,33 @@
+package com.gameengine.core;
+
+/**
+ * 批量积分内核
+ * 物体数据按字段存放在连续数组中，内核只处理 [from, to) 区间，可按区间拆分到多个线程
+ */
+public interface IntegrationKernel {
+    /**
+     * 半隐式欧拉积分一步：v = (v + a·h)·damping，p += v·h
+     * h 与 damping 按物体给出，h 为 0 的物体保持不动
+     */
+    void integrate(float[] px, float[] py, float[] vx, float[] vy, float[] ax, float[] ay,
+                   float[] h, float[] damping, int from, int to);
+
+    /**
+     * 边界反弹（WorldBounds.Policy.BOUNCE）：越界的速度分量改为指向区域内侧，并把位置夹到区域内
+     */
+    void bounce(float[] px, float[] py, float[] vx, float[] vy,
+                float minX, float minY, float maxX, float maxY, int from, int to);
+
+    /**
+     * 边界限制（WorldBounds.Policy.CLAMP）：去掉越界方向上朝外的速度分量，并把位置夹到区域内
+     */
+    void clamp(float[] px, float[] py, float[] vx, float[] vy,
+               float minX, float minY, float maxX, float maxY, int from, int to);
+
+    /**
+     * 每次处理的浮点数通道数（标量实现为 1）
+     */
+    int getLaneCount();
+
+    String getName();
+}
@@ -0,0 +1,38 @@
+package com.gameengine.core;
+
+/**
+ * 积分内核工厂
+ * jdk.incubator.vector 模块已加载时使用向量内核，否则退回标量内核
+ */
+public class IntegrationKernelFactory {
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final String VECTOR_KERNEL = "com.gameengine.core.VectorIntegrationKernel";
+
+    /**
+     * 创建当前环境下最快的积分内核
+     */
+    public static IntegrationKernel createKernel() {
+        if (isVectorAvailable()) {
+            try {
+                return (IntegrationKernel) Class.forName(VECTOR_KERNEL).getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // 模块存在但向量内核未编译进来（例如构建时排除了该源文件）
+            }
+        }
+        return new ScalarIntegrationKernel();
+    }
+
+    /**
+     * 创建标量积分内核
+     */
+    public static IntegrationKernel createScalarKernel() {
+        return new ScalarIntegrationKernel();
+    }
+
+    /**
+     * 向量模块是否已加入启动模块层（需要 --add-modules jdk.incubator.vector）
+     */
+    public static boolean isVectorAvailable() {
+        return ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent();
+    }
+}
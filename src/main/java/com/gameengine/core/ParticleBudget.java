@@ -0,0 +1,391 @@
+package com.gameengine.core;
+
+import com.gameengine.graphics.IRenderer;
+
+import java.util.Arrays;
+
+/**
+ * 场景粒子预算
+ * 注册的发射器不再各自生成粒子：每帧先收集各发射器的生成需求（连续发射和 burst），
+ * 积分已有粒子后，在“存活上限 - 当前存活”与“每帧生成上限”之内按优先级从高到低、
+ * 同优先级按离视口从近到远依次批准，剩余需求直接丢弃并计入削减量
+ *
+ * 发射器按活动区域（存活粒子包围盒和排队 burst 位置，见 ParticleSystem.getActiveArea）离视口的距离分成三档细节：
+ * 视口内 FULL；视口外 nearDistance 以内 REDUCED；更远 MINIMAL。
+ * 低档位按比例降低生成量，并隔帧积分（累积时间一次推进）
+ *
+ * 视口默认取各发射器渲染器的窗口大小，也可以用 setView 指定（例如有摄像机时），指定的视口同时用于发射器的包围盒裁剪
+ */
+public class ParticleBudget {
+    /**
+     * 细节档位
+     */
+    public enum Detail {
+        /** 视口内：全量生成，每帧积分 */
+        FULL(1.0f, 1),
+        /** 视口附近：生成量减半，隔一帧积分 */
+        REDUCED(0.5f, 2),
+        /** 远离视口：生成量降到一成，每四帧积分 */
+        MINIMAL(0.1f, 4);
+        
+        private final float spawnScale;
+        private final int updateStride;
+        
+        Detail(float spawnScale, int updateStride) {
+            this.spawnScale = spawnScale;
+            this.updateStride = updateStride;
+        }
+        
+        public float getSpawnScale() {
+            return spawnScale;
+        }
+        
+        public int getUpdateStride() {
+            return updateStride;
+        }
+    }
+    
+    public static final int DEFAULT_MAX_LIVE = 20000;
+    public static final int DEFAULT_MAX_SPAWNS_PER_FRAME = 4000;
+    public static final float DEFAULT_NEAR_DISTANCE = 200.0f;
+    
+    private int maxLive;
+    private int maxSpawnsPerFrame;
+    private float nearDistance;
+    
+    private boolean viewSet;
+    private float viewMinX, viewMinY, viewMaxX, viewMaxY;
+    
+    // 注册的发射器，按下标并列保存各自状态
+    private ParticleSystem[] emitters = new ParticleSystem[8];
+    private int[] priorities = new int[8];
+    private float[] distances = new float[8];
+    private Detail[] details = new Detail[8];
+    private float[] spawnCarry = new float[8];
+    private float[] pendingTime = new float[8];
+    private int[] order = new int[8];
+    private final float[] area = new float[4];
+    private int emitterCount;
+    private long frame;
+    
+    // 统计
+    private int liveCount;
+    private int spawnedThisFrame;
+    private int shedByDetail;
+    private int shedByBudget;
+    private long totalShed;
+    
+    public ParticleBudget() {
+        this(DEFAULT_MAX_LIVE, DEFAULT_MAX_SPAWNS_PER_FRAME);
+    }
+    
+    public ParticleBudget(int maxLive, int maxSpawnsPerFrame) {
+        setMaxLive(maxLive);
+        setMaxSpawnsPerFrame(maxSpawnsPerFrame);
+        this.nearDistance = DEFAULT_NEAR_DISTANCE;
+    }
+    
+    /**
+     * 注册发射器，priority 越大越先获得预算；重复注册只更新优先级
+     */
+    public void register(ParticleSystem emitter, int priority) {
+        if (emitter == null) {
+            throw new IllegalArgumentException("emitter is null");
+        }
+        if (emitter.getBudget() != null && emitter.getBudget() != this) {
+            throw new IllegalArgumentException("emitter already belongs to another budget");
+        }
+        int index = indexOf(emitter);
+        if (index < 0) {
+            if (emitterCount == emitters.length) {
+                grow(emitterCount * 2);
+            }
+            index = emitterCount++;
+            emitters[index] = emitter;
+            details[index] = Detail.FULL;
+            spawnCarry[index] = 0;
+            pendingTime[index] = 0;
+            emitter.setBudget(this);
+            if (viewSet) {
+                emitter.setView(viewMinX, viewMinY, viewMaxX, viewMaxY);
+            }
+        }
+        priorities[index] = priority;
+    }
+    
+    /**
+     * 注销发射器，之后它恢复独立生成
+     */
+    public void unregister(ParticleSystem emitter) {
+        int index = indexOf(emitter);
+        if (index < 0) return;
+        emitter.setBudget(null);
+        int last = --emitterCount;
+        emitters[index] = emitters[last];
+        priorities[index] = priorities[last];
+        details[index] = details[last];
+        spawnCarry[index] = spawnCarry[last];
+        pendingTime[index] = pendingTime[last];
+        emitters[last] = null;
+        details[last] = null;
+    }
+    
+    /**
+     * 更新所有发射器并结算本帧的生成预算
+     */
+    public void update(float deltaTime) {
+        frame++;
+        spawnedThisFrame = 0;
+        shedByDetail = 0;
+        shedByBudget = 0;
+        
+        // 细节档位、生成需求和积分
+        int live = 0;
+        for (int i = 0; i < emitterCount; i++) {
+            ParticleSystem emitter = emitters[i];
+            Detail detail = classify(i);
+            details[i] = detail;
+            order[i] = i;
+            
+            emitter.collectSpawns(deltaTime);
+            
+            pendingTime[i] += deltaTime;
+            // 按下标错开，低档位发射器不会集中在同一帧积分
+            if ((frame + i) % detail.updateStride == 0) {
+                emitter.simulate(pendingTime[i]);
+                pendingTime[i] = 0;
+            }
+            live += emitter.getParticleCount();
+        }
+        
+        sortByPriority();
+        
+        int available = Math.min(maxSpawnsPerFrame, Math.max(0, maxLive - live));
+        for (int k = 0; k < emitterCount; k++) {
+            int i = order[k];
+            ParticleSystem emitter = emitters[i];
+            int burst = emitter.getPendingBurst();
+            int spawns = emitter.getPendingSpawns();
+            if (burst == 0 && spawns == 0) continue;
+            
+            // 按档位缩放需求，小数部分跨帧累积，低生成率的发射器也能按比例发射
+            int demand = burst + spawns;
+            float scaled = demand * details[i].spawnScale + spawnCarry[i];
+            int wanted = Math.min(demand, (int) scaled);
+            spawnCarry[i] = scaled - wanted;
+            shedByDetail += demand - wanted;
+            
+            int granted = Math.min(wanted, available);
+            shedByBudget += wanted - granted;
+            available -= granted;
+            
+            // 优先保留 burst（通常是玩法反馈）
+            int grantedBurst = Math.min(burst, granted);
+            emitter.grant(grantedBurst, granted - grantedBurst);
+            spawnedThisFrame += granted;
+            live += granted;
+        }
+        
+        liveCount = live;
+        totalShed += shedByDetail + shedByBudget;
+    }
+    
+    /**
+     * 渲染所有发射器
+     */
+    public void render() {
+        for (int i = 0; i < emitterCount; i++) {
+            emitters[i].render();
+        }
+    }
+    
+    // 计算细节档位，同时记下活动区域到视口的距离平方用于同优先级排序
+    private Detail classify(int index) {
+        ParticleSystem emitter = emitters[index];
+        distances[index] = 0;
+        float x0, y0, x1, y1;
+        if (viewSet) {
+            x0 = viewMinX;
+            y0 = viewMinY;
+            x1 = viewMaxX;
+            y1 = viewMaxY;
+        } else {
+            IRenderer renderer = emitter.getRenderer();
+            if (renderer == null) return Detail.FULL;
+            x0 = 0;
+            y0 = 0;
+            x1 = renderer.getWidth();
+            y1 = renderer.getHeight();
+        }
+        emitter.getActiveArea(area);
+        float dx = Math.max(0, Math.max(x0 - area[2], area[0] - x1));
+        float dy = Math.max(0, Math.max(y0 - area[3], area[1] - y1));
+        float distanceSquared = dx * dx + dy * dy;
+        distances[index] = distanceSquared;
+        if (distanceSquared == 0) return Detail.FULL;
+        if (distanceSquared <= nearDistance * nearDistance) return Detail.REDUCED;
+        return Detail.MINIMAL;
+    }
+    
+    // 插入排序：优先级降序，同优先级时离视口近的在前（发射器数量少，且帧间顺序基本不变）
+    private void sortByPriority() {
+        for (int k = 1; k < emitterCount; k++) {
+            int current = order[k];
+            int j = k - 1;
+            while (j >= 0 && before(current, order[j])) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = current;
+        }
+    }
+    
+    private boolean before(int a, int b) {
+        if (priorities[a] != priorities[b]) return priorities[a] > priorities[b];
+        return distances[a] < distances[b];
+    }
+    
+    private int indexOf(ParticleSystem emitter) {
+        for (int i = 0; i < emitterCount; i++) {
+            if (emitters[i] == emitter) return i;
+        }
+        return -1;
+    }
+    
+    private void grow(int size) {
+        emitters = Arrays.copyOf(emitters, size);
+        priorities = Arrays.copyOf(priorities, size);
+        distances = Arrays.copyOf(distances, size);
+        details = Arrays.copyOf(details, size);
+        spawnCarry = Arrays.copyOf(spawnCarry, size);
+        pendingTime = Arrays.copyOf(pendingTime, size);
+        order = Arrays.copyOf(order, size);
+    }
+    
+    /**
+     * 注销所有发射器
+     */
+    public void clear() {
+        for (int i = 0; i < emitterCount; i++) {
+            emitters[i].setBudget(null);
+            emitters[i] = null;
+            details[i] = null;
+        }
+        emitterCount = 0;
+        liveCount = 0;
+    }
+    
+    /**
+     * 指定视口（世界坐标），用于判断发射器的细节档位
+     */
+    public void setView(float minX, float minY, float maxX, float maxY) {
+        if (maxX < minX || maxY < minY) {
+            throw new IllegalArgumentException("invalid view: " + minX + "," + minY + " - " + maxX + "," + maxY);
+        }
+        viewMinX = minX;
+        viewMinY = minY;
+        viewMaxX = maxX;
+        viewMaxY = maxY;
+        viewSet = true;
+        for (int i = 0; i < emitterCount; i++) {
+            emitters[i].setView(minX, minY, maxX, maxY);
+        }
+    }
+    
+    /**
+     * 恢复使用发射器渲染器的窗口作为视口
+     */
+    public void clearView() {
+        viewSet = false;
+        for (int i = 0; i < emitterCount; i++) {
+            emitters[i].clearView();
+        }
+    }
+    
+    public void setMaxLive(int maxLive) {
+        if (maxLive < 0) {
+            throw new IllegalArgumentException("maxLive must be >= 0: " + maxLive);
+        }
+        this.maxLive = maxLive;
+    }
+    
+    public int getMaxLive() {
+        return maxLive;
+    }
+    
+    public void setMaxSpawnsPerFrame(int maxSpawnsPerFrame) {
+        if (maxSpawnsPerFrame < 0) {
+            throw new IllegalArgumentException("maxSpawnsPerFrame must be >= 0: " + maxSpawnsPerFrame);
+        }
+        this.maxSpawnsPerFrame = maxSpawnsPerFrame;
+    }
+    
+    public int getMaxSpawnsPerFrame() {
+        return maxSpawnsPerFrame;
+    }
+    
+    /**
+     * 设置视口外降为 REDUCED 档的距离，超过该距离为 MINIMAL
+     */
+    public void setNearDistance(float nearDistance) {
+        this.nearDistance = Math.max(0, nearDistance);
+    }
+    
+    public float getNearDistance() {
+        return nearDistance;
+    }
+    
+    /**
+     * 获取发射器当前的细节档位（未注册时返回 null）
+     */
+    public Detail getDetail(ParticleSystem emitter) {
+        int index = indexOf(emitter);
+        return index >= 0 ? details[index] : null;
+    }
+    
+    public int getEmitterCount() {
+        return emitterCount;
+    }
+    
+    /**
+     * 获取本帧结算后的存活粒子总数
+     */
+    public int getLiveCount() {
+        return liveCount;
+    }
+    
+    /**
+     * 获取本帧批准生成的粒子数
+     */
+    public int getSpawnedThisFrame() {
+        return spawnedThisFrame;
+    }
+    
+    /**
+     * 获取本帧因细节档位削减的生成数
+     */
+    public int getShedByDetail() {
+        return shedByDetail;
+    }
+    
+    /**
+     * 获取本帧因超出存活上限或每帧生成上限削减的生成数
+     */
+    public int getShedByBudget() {
+        return shedByBudget;
+    }
+    
+    /**
+     * 获取本帧削减的生成总数
+     */
+    public int getShedThisFrame() {
+        return shedByDetail + shedByBudget;
+    }
+    
+    /**
+     * 获取累计削减的生成总数
+     */
+    public long getTotalShed() {
+        return totalShed;
+    }
+}
@@ -0,0 +1,125 @@
+package com.gameengine.core;
+
+import com.gameengine.graphics.IRenderer;
+import com.gameengine.math.Vector2;
+
+/**
+ * 一次性视觉特效
+ * 每种特效共用一个不持续发射的粒子系统，spawn 只在其中追加一次 burst：
+ * 特效粒子不是 GameObject，不进入场景对象列表，也不参与碰撞检测；
+ * 发射器注册到场景粒子预算，由场景统一更新、渲染和限流
+ *
+ * 设置监听器后，每次 spawn 通知一次（录制服务据此把整个特效记为一个生成事件）
+ */
+public class ParticleEffects {
+    /**
+     * 特效类型
+     */
+    public enum Type {
+        /** 炸弹爆炸 */
+        EXPLOSION(12);
+        
+        private final int particles;
+        
+        Type(int particles) {
+            this.particles = particles;
+        }
+        
+        public int getParticles() {
+            return particles;
+        }
+        
+        ParticleSystem.Config createConfig() {
+            switch (this) {
+                case EXPLOSION:
+                default:
+                    return ParticleSystem.Config.explosion();
+            }
+        }
+    }
+    
+    /**
+     * 特效生成监听器
+     */
+    public interface Listener {
+        void onEffect(Type type, float x, float y);
+    }
+    
+    /** 特效发射器在预算中的优先级：高于环境粒子，保证玩法反馈 */
+    public static final int PRIORITY = 10;
+    
+    private final ParticleBudget budget;
+    private final ParticleSystem[] emitters = new ParticleSystem[Type.values().length];
+    private IRenderer renderer;
+    private Listener listener;
+    
+    public ParticleEffects(ParticleBudget budget) {
+        if (budget == null) {
+            throw new IllegalArgumentException("budget is null");
+        }
+        this.budget = budget;
+    }
+    
+    /**
+     * 在指定位置生成一次特效
+     */
+    public void spawn(Type type, float x, float y) {
+        emitter(type).burstAt(x, y, type.particles);
+        if (listener != null) {
+            listener.onEffect(type, x, y);
+        }
+    }
+    
+    // 首次使用某种特效时创建发射器
+    private ParticleSystem emitter(Type type) {
+        ParticleSystem emitter = emitters[type.ordinal()];
+        if (emitter == null) {
+            emitter = new ParticleSystem(renderer, new Vector2(), type.createConfig());
+            emitter.setActive(false);
+            budget.register(emitter, PRIORITY);
+            emitters[type.ordinal()] = emitter;
+        }
+        return emitter;
+    }
+    
+    /**
+     * 设置特效使用的渲染器
+     */
+    public void setRenderer(IRenderer renderer) {
+        this.renderer = renderer;
+        for (ParticleSystem emitter : emitters) {
+            if (emitter != null) {
+                emitter.setRenderer(renderer);
+            }
+        }
+    }
+    
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+    
+    public Listener getListener() {
+        return listener;
+    }
+    
+    /**
+     * 获取某种特效当前存活的粒子数
+     */
+    public int getParticleCount(Type type) {
+        ParticleSystem emitter = emitters[type.ordinal()];
+        return emitter != null ? emitter.getParticleCount() : 0;
+    }
+    
+    /**
+     * 移除所有特效粒子，并把发射器从预算注销（下次使用时重新创建并注册）
+     */
+    public void clear() {
+        for (int i = 0; i < emitters.length; i++) {
+            if (emitters[i] != null) {
+                emitters[i].clear();
+                budget.unregister(emitters[i]);
+                emitters[i] = null;
+            }
+        }
+    }
+}
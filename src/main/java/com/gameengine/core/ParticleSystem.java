@@ -1,16 +1,89 @@
 package com.gameengine.core;
 
 import com.gameengine.graphics.IRenderer;
+import com.gameengine.math.FastTrig;
 import com.gameengine.math.Vector2;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Iterator;
-import java.util.Random;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
+/**
+ * 粒子系统
+ * 粒子按字段保存在预先分配的 float 数组中（结构数组），容量固定；
+ * 死亡的粒子用末尾的粒子填补（交换删除），update / render 不分配对象
+ *
+ * 存活粒子超过并行阈值时，update 按数组区间拆分到 ForkJoinPool 积分，再在调用线程上统一交换删除；
+ * 大批量 burst 同样并行写入。每个粒子的随机数由（种子, 生成批次, 批内序号）直接算出，
+ * 与线程数和拆分方式无关，相同种子下串行与并行的结果逐位一致
+ */
 public class ParticleSystem {
-    private List<Particle> particles;
-    private Random random;
+    /**
+     * 粒子数达到容量上限时的处理方式
+     */
+    public enum OverflowPolicy {
+        /** 丢弃新粒子 */
+        DROP,
+        /** 轮流覆盖已有的粒子 */
+        RECYCLE
+    }
+    
+    // 粒子数据，下标 [0, count) 为存活粒子
+    private final int capacity;
+    private final float[] px, py;
+    private final float[] vx, vy;
+    private final float[] life, maxLife;
+    private final float[] size;
+    private final float[] r, g, b, a;
+    private int count;
+    private int recycleCursor;
+    private long droppedCount;
+    
+    /** 默认并行阈值：存活粒子数（或单次 burst 数量）达到该值时并行处理 */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 32768;
+    // 并行任务拆分到的最小区间长度
+    private static final int MIN_CHUNK = 8192;
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+    
+    /** 每帧的速度衰减系数 */
+    private static final float DAMPING = 0.98f;
+    // 渲染时允许粒子超出视口的距离
+    private static final float RENDER_MARGIN = 50f;
+    // 视口外生成时最多回拨的帧数：回拨的速度按 1 / DAMPING^n 放大，过长会损失精度，超过后先追上一次
+    private static final int MAX_REWIND_FRAMES = 60;
+    
+    // 随机数：每次生成（一次 spawn 或一次 burst）占用一个批次号
+    private long seed;
+    private long spawnSequence;
+    
+    // 并行
+    private ForkJoinPool pool;
+    private int parallelThreshold;
+    private volatile boolean deadFound;
+    
+    // 所属的粒子预算：不为 null 时新粒子先记为待生成，由预算统一批准
+    private ParticleBudget budget;
+    private int pendingSpawns;
+    private int pendingBurst;
+    // 待生成的 burst 队列：各自的发射位置和数量
+    private float[] burstX = new float[4];
+    private float[] burstY = new float[4];
+    private int[] burstCount = new int[4];
+    private int burstQueued;
+    
+    // 包围盒裁剪：视口默认取渲染器窗口；不可见期间累计的帧数和时间
+    private final Bounds bounds = new Bounds();
+    private boolean viewSet;
+    private float viewMinX, viewMinY, viewMaxX, viewMaxY;
+    private int culledFrames;
+    private float culledTime;
+    // 视口外生成的粒子按已累计的帧回拨初始状态：速度缩放、位置回退系数和寿命补偿（生成前算好，并行 burst 只读）
+    private float rewindScale = 1;
+    private float rewindTravel;
+    private float rewindTime;
+    
     private IRenderer renderer;
+    // 渲染用的实例数据，首次渲染时分配
+    private float[] instances;
     private float spawnRate;
     private float timeSinceLastSpawn;
     private Vector2 position;
@@ -18,65 +91,6 @@ public class ParticleSystem {
     
     private Config config;
     
-    private static class Particle {
-        private Vector2 position;
-        private Vector2 velocity;
-        private float life;
-        private float maxLife;
-        private float size;
-        private float r, g, b, a;
-        
-        public Particle(Vector2 position, Vector2 velocity, float life, float size, float r, float g, float b) {
-            this.position = new Vector2(position);
-            this.velocity = new Vector2(velocity);
-            this.maxLife = life;
-            this.life = life;
-            this.size = size;
-            this.r = r;
-            this.g = g;
-            this.b = b;
-            this.a = 1.0f;
-        }
-        
-        public void update(float deltaTime) {
-            position = position.add(velocity.multiply(deltaTime));
-            life -= deltaTime;
-            
-            if (life > 0) {
-                a = life / maxLife;
-                velocity = velocity.multiply(0.98f);
-            }
-        }
-        
-        public boolean isAlive() {
-            return life > 0;
-        }
-        
-        public Vector2 getPosition() {
-            return new Vector2(position);
-        }
-        
-        public float getSize() {
-            return size;
-        }
-        
-        public float getR() {
-            return r;
-        }
-        
-        public float getG() {
-            return g;
-        }
-        
-        public float getB() {
-            return b;
-        }
-        
-        public float getA() {
-            return a;
-        }
-    }
-    
     public static class Config {
         public float spawnRate = 0.015f;
         public int initialCount = 30;
@@ -92,6 +106,11 @@ public class ParticleSystem {
         public float opacityMultiplier = 1.0f;
         public float minRenderSize = 2.0f;
         
+        /** 最多同时存活的粒子数 */
+        public int capacity = 4096;
+        /** 粒子数达到上限后新粒子的处理方式 */
+        public OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+        
         public float burstSpeedMin = 80f;
         public float burstSpeedMax = 200f;
         public float burstLifeMin = 0.6f;
@@ -138,6 +157,28 @@ public class ParticleSystem {
             config.minRenderSize = 1.5f;
             return config;
         }
+        
+        /**
+         * 爆炸：只用 burst 发射的橙色碎片
+         */
+        public static Config explosion() {
+            Config config = new Config();
+            config.initialCount = 0;
+            config.capacity = 2048;
+            config.opacityMultiplier = 1.0f;
+            config.minRenderSize = 3.0f;
+            config.burstSpeedMin = 160f;
+            config.burstSpeedMax = 240f;
+            config.burstLifeMin = 0.4f;
+            config.burstLifeMax = 0.5f;
+            config.burstSizeMin = 5f;
+            config.burstSizeMax = 7f;
+            config.burstR = 1.0f;
+            config.burstGMin = 0.4f;
+            config.burstGMax = 0.6f;
+            config.burstB = 0.0f;
+            return config;
+        }
     }
     
     public ParticleSystem(IRenderer renderer, Vector2 position) {
@@ -145,9 +186,23 @@ public class ParticleSystem {
     }
     
     public ParticleSystem(IRenderer renderer, Vector2 position, Config config) {
-        this.particles = new ArrayList<>();
-        this.random = new Random();
+        this.capacity = Math.max(1, config.capacity);
+        this.px = new float[capacity];
+        this.py = new float[capacity];
+        this.vx = new float[capacity];
+        this.vy = new float[capacity];
+        this.life = new float[capacity];
+        this.maxLife = new float[capacity];
+        this.size = new float[capacity];
+        this.r = new float[capacity];
+        this.g = new float[capacity];
+        this.b = new float[capacity];
+        this.a = new float[capacity];
+        this.seed = System.nanoTime();
+        this.pool = ForkJoinPool.commonPool();
+        this.parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
         this.renderer = renderer;
+        this.bounds.reset();
         this.position = new Vector2(position);
         this.config = config;
         this.spawnRate = config.spawnRate;
@@ -165,55 +220,373 @@ public class ParticleSystem {
     
     public void setPosition(Vector2 position) {
         if (position != null) {
-            this.position = new Vector2(position);
+            this.position.set(position);
         }
     }
     
+    /**
+     * 更新发射器：按生成间隔发射新粒子并积分已有粒子
+     * 注册到 ParticleBudget 后由预算调用，不应再直接调用
+     */
     public void update(float deltaTime) {
-        if (active) {
-            timeSinceLastSpawn += deltaTime;
-            if (timeSinceLastSpawn >= spawnRate) {
+        collectSpawns(deltaTime);
+        simulate(deltaTime);
+    }
+    
+    // 推进生成计时；受预算管理时只记下需求
+    void collectSpawns(float deltaTime) {
+        if (!active) return;
+        timeSinceLastSpawn += deltaTime;
+        if (timeSinceLastSpawn >= spawnRate) {
+            if (budget != null) {
+                pendingSpawns++;
+            } else {
                 spawnParticle();
-                timeSinceLastSpawn = 0f;
             }
+            timeSinceLastSpawn = 0f;
+        }
+    }
+    
+    // 积分已有粒子；包围盒在视口外时只累计时间，重新可见时一次追上
+    void simulate(float deltaTime) {
+        if (count == 0) return;
+        bounds.grow(deltaTime);
+        if (bounds.maxLife <= 0) {
+            // 剩余寿命上界已耗尽：全部死亡，无需追上
+            count = 0;
+            resetCulled();
+            return;
+        }
+        if (!isVisible()) {
+            culledFrames++;
+            culledTime += deltaTime;
+            return;
+        }
+        step(culledFrames + 1, culledTime + deltaTime);
+    }
+    
+    // 把屏幕外累计的帧一次追上
+    private void catchUp() {
+        if (culledFrames > 0) {
+            step(culledFrames, culledTime);
+        }
+    }
+    
+    private void resetCulled() {
+        culledFrames = 0;
+        culledTime = 0;
+    }
+    
+    /**
+     * 生成 n 个粒子前调用。视口外时不追上已有粒子：新粒子的初始状态按已累计的 culledFrames 帧回拨
+     * （速度除以 DAMPING^n，位置沿回拨后的速度后退，寿命加上累计时间），之后与旧粒子一起做同一次解析步进，
+     * 到达与逐帧积分相同的位置（帧长变化时按已累计的平均帧长近似）。
+     * 只有回拨帧数超过 MAX_REWIND_FRAMES，或容量不足需要回收已死亡的粒子时才先追上
+     */
+    private void prepareSpawn(int n) {
+        if (culledFrames >= MAX_REWIND_FRAMES || (culledFrames > 0 && n > capacity - count)) {
+            catchUp();
+        }
+        if (culledFrames == 0) {
+            rewindScale = 1;
+            rewindTravel = 0;
+            rewindTime = 0;
+            return;
+        }
+        double damping = Math.pow(DAMPING, culledFrames);
+        rewindScale = (float) (1 / damping);
+        rewindTravel = (float) (culledTime / culledFrames * (1 - damping) / (1 - DAMPING));
+        rewindTime = culledTime;
+    }
+    
+    /**
+     * 推进 frames 帧、共 time 秒，并重新计算包围盒
+     * 每帧速度乘以 DAMPING，多帧时按平均帧长解析求和：位移 = v * 帧长 * (1 - DAMPING^n) / (1 - DAMPING)；
+     * 单帧时与逐帧积分逐位一致
+     */
+    private void step(int frames, float time) {
+        float travel;
+        float decay;
+        if (frames == 1) {
+            travel = time;
+            decay = DAMPING;
+        } else {
+            double damping = Math.pow(DAMPING, frames);
+            travel = (float) (time / frames * (1 - damping) / (1 - DAMPING));
+            decay = (float) damping;
+        }
+        resetCulled();
+        bounds.reset();
+        
+        if (count >= parallelThreshold && pool.getParallelism() > 1) {
+            deadFound = false;
+            pool.invoke(new UpdateTask(0, count, time, travel, decay));
+            if (deadFound) {
+                compact();
+            }
+            return;
         }
         
-        Iterator<Particle> iterator = particles.iterator();
-        while (iterator.hasNext()) {
-            Particle particle = iterator.next();
-            particle.update(deltaTime);
-            if (!particle.isAlive()) {
-                iterator.remove();
+        int i = 0;
+        while (i < count) {
+            if (!integrate(i, time, travel, decay)) {
+                // 交换删除：末尾的粒子移到这里，下一轮继续处理该下标
+                moveParticle(--count, i);
+                continue;
             }
+            bounds.include(px[i], py[i], vx[i], vy[i], size[i], life[i]);
+            i++;
         }
     }
     
+    /**
+     * 积分单个粒子，返回是否仍然存活（死亡的粒子保持原样，等待删除）
+     */
+    private boolean integrate(int i, float time, float travel, float decay) {
+        float remaining = life[i] - time;
+        life[i] = remaining;
+        if (remaining <= 0) return false;
+        px[i] += vx[i] * travel;
+        py[i] += vy[i] * travel;
+        a[i] = remaining / maxLife[i];
+        vx[i] *= decay;
+        vy[i] *= decay;
+        return true;
+    }
+    
+    /**
+     * 包围盒（扩大粒子尺寸和渲染边距后）是否与视口相交；没有渲染器也没有指定视口时总是可见
+     */
+    private boolean isVisible() {
+        float x0, y0, x1, y1;
+        if (viewSet) {
+            x0 = viewMinX;
+            y0 = viewMinY;
+            x1 = viewMaxX;
+            y1 = viewMaxY;
+        } else if (renderer != null) {
+            x0 = 0;
+            y0 = 0;
+            x1 = renderer.getWidth();
+            y1 = renderer.getHeight();
+        } else {
+            return true;
+        }
+        float pad = RENDER_MARGIN + bounds.maxSize * 0.5f;
+        return bounds.maxX + pad >= x0 && bounds.minX - pad <= x1
+                && bounds.maxY + pad >= y0 && bounds.minY - pad <= y1;
+    }
+    
+    // 并行积分后的交换删除，删除顺序与串行路径相同
+    private void compact() {
+        int i = 0;
+        while (i < count) {
+            if (life[i] <= 0) {
+                moveParticle(--count, i);
+                continue;
+            }
+            i++;
+        }
+    }
+    
+    private final class UpdateTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        
+        private final int from, to;
+        private final float time, travel, decay;
+        
+        UpdateTask(int from, int to, float time, float travel, float decay) {
+            this.from = from;
+            this.to = to;
+            this.time = time;
+            this.travel = travel;
+            this.decay = decay;
+        }
+        
+        @Override
+        protected void compute() {
+            if (to - from > MIN_CHUNK) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new UpdateTask(from, mid, time, travel, decay), new UpdateTask(mid, to, time, travel, decay));
+                return;
+            }
+            boolean dead = false;
+            Bounds local = new Bounds();
+            local.reset();
+            for (int i = from; i < to; i++) {
+                if (integrate(i, time, travel, decay)) {
+                    local.include(px[i], py[i], vx[i], vy[i], size[i], life[i]);
+                } else {
+                    dead = true;
+                }
+            }
+            if (dead) deadFound = true;
+            synchronized (bounds) {
+                bounds.merge(local);
+            }
+        }
+    }
+    
+    private void moveParticle(int from, int to) {
+        px[to] = px[from];
+        py[to] = py[from];
+        vx[to] = vx[from];
+        vy[to] = vy[from];
+        life[to] = life[from];
+        maxLife[to] = maxLife[from];
+        size[to] = size[from];
+        r[to] = r[from];
+        g[to] = g[from];
+        b[to] = b[from];
+        a[to] = a[from];
+    }
+    
+    /**
+     * 为一次生成的 n 个粒子预留槽位：返回可直接追加的数量，其余按溢出策略丢弃或覆盖
+     * 批内序号 k 的槽位由 slotOf 给出（-1 表示丢弃）
+     */
+    private int reserve(int n) {
+        int free = Math.min(n, capacity - count);
+        int overflow = n - free;
+        if (overflow > 0 && config.overflowPolicy == OverflowPolicy.DROP) {
+            droppedCount += overflow;
+        }
+        return free;
+    }
+    
+    /**
+     * 调用方保证 n 不超过容量：溢出部分 n - free 不超过 base，只在本批之前的 [0, base) 中轮流覆盖，
+     * 不会落到本批追加的槽位上，每个槽位最多对应一个 k，并行写入互不冲突
+     */
+    private int slotOf(int k, int base, int free, int n) {
+        if (k < free) return base + k;
+        if (config.overflowPolicy != OverflowPolicy.RECYCLE) return -1;
+        return (int) ((recycleCursor + (long) (k - free)) % base);
+    }
+    
+    private void commit(int n, int free) {
+        count += free;
+        int overflow = n - free;
+        if (overflow > 0 && config.overflowPolicy == OverflowPolicy.RECYCLE) {
+            recycleCursor = (int) ((recycleCursor + (long) overflow) % capacity);
+        }
+    }
+    
+    /**
+     * 设置随机种子：之后的生成结果只取决于种子和调用顺序
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+        this.spawnSequence = 0;
+    }
+    
+    // SplitMix64 终混函数
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+    
+    private long particleState(long sequence, int k) {
+        return mix64(seed ^ mix64(sequence * GOLDEN + k));
+    }
+    
+    // 粒子随机状态的第 draw 个 [0, 1) 随机数
+    private static float random(long state, int draw) {
+        return (mix64(state + draw * GOLDEN) >>> 40) * 0x1.0p-24f;
+    }
+    
     private void spawnParticle() {
         if (position == null) return;
         
-        float angle = (float) (random.nextFloat() * 2.0 * Math.PI);
-        float speed = config.speedMin + random.nextFloat() * (config.speedMax - config.speedMin);
-        Vector2 velocity = new Vector2(
-            (float) (Math.cos(angle) * speed),
-            (float) (Math.sin(angle) * speed)
-        );
+        prepareSpawn(1);
+        int free = reserve(1);
+        int slot = slotOf(0, count, free, 1);
+        long state = particleState(spawnSequence++, 0);
+        commit(1, free);
+        if (slot < 0) return;
         
-        float life = config.lifeMin + random.nextFloat() * (config.lifeMax - config.lifeMin);
-        float size = config.sizeMin + random.nextFloat() * (config.sizeMax - config.sizeMin);
+        float speed = config.speedMin + random(state, 0) * (config.speedMax - config.speedMin);
+        float lifeTime = config.lifeMin + random(state, 1) * (config.lifeMax - config.lifeMin);
+        float particleSize = config.sizeMin + random(state, 2) * (config.sizeMax - config.sizeMin);
         
-        float r = config.r;
-        float g = config.g;
-        float b = config.b;
+        float cr = config.r;
+        float cg = config.g;
+        float cb = config.b;
         
         if (config.r < 1.0f) {
-            r = config.r + random.nextFloat() * 0.2f;
+            cr = config.r + random(state, 4) * 0.2f;
         }
         if (config.g < 1.0f) {
-            g = config.g + random.nextFloat() * 0.2f;
+            cg = config.g + random(state, 5) * 0.2f;
         }
         
-        Particle particle = new Particle(new Vector2(position), velocity, life, size, r, g, b);
-        particles.add(particle);
+        emit(slot, position.x, position.y, random(state, 3), speed, lifeTime, particleSize, cr, cg, cb);
+        bounds.include(position.x, position.y, speed, speed, particleSize, lifeTime);
+    }
+    
+    private void emit(int i, float x, float y, float turns, float speed, float lifeTime, float particleSize, float cr, float cg, float cb) {
+        float velX = FastTrig.cosTurns(turns) * speed; // 随机方向（圈数），查表求方向
+        float velY = FastTrig.sinTurns(turns) * speed;
+        if (rewindTime > 0) {
+            velX *= rewindScale;
+            velY *= rewindScale;
+            x -= velX * rewindTravel;
+            y -= velY * rewindTravel;
+        }
+        px[i] = x;
+        py[i] = y;
+        vx[i] = velX;
+        vy[i] = velY;
+        life[i] = lifeTime + rewindTime;
+        maxLife[i] = lifeTime;
+        size[i] = particleSize;
+        r[i] = cr;
+        g[i] = cg;
+        b[i] = cb;
+        a[i] = 1.0f;
+    }
+    
+    private void burstRange(long sequence, float x, float y, int from, int to, int base, int free, int n) {
+        for (int k = from; k < to; k++) {
+            int slot = slotOf(k, base, free, n);
+            if (slot < 0) continue;
+            long state = particleState(sequence, k);
+            float speed = config.burstSpeedMin + random(state, 0) * (config.burstSpeedMax - config.burstSpeedMin);
+            float lifeTime = config.burstLifeMin + random(state, 1) * (config.burstLifeMax - config.burstLifeMin);
+            float particleSize = config.burstSizeMin + random(state, 2) * (config.burstSizeMax - config.burstSizeMin);
+            float cg = config.burstGMin + random(state, 4) * (config.burstGMax - config.burstGMin);
+            emit(slot, x, y, random(state, 3), speed, lifeTime, particleSize, config.burstR, cg, config.burstB);
+        }
+    }
+    
+    private final class BurstTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        
+        private final long sequence;
+        private final float x, y;
+        private final int from, to, base, free, n;
+        
+        BurstTask(long sequence, float x, float y, int from, int to, int base, int free, int n) {
+            this.sequence = sequence;
+            this.x = x;
+            this.y = y;
+            this.from = from;
+            this.to = to;
+            this.base = base;
+            this.free = free;
+            this.n = n;
+        }
+        
+        @Override
+        protected void compute() {
+            if (to - from > MIN_CHUNK) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new BurstTask(sequence, x, y, from, mid, base, free, n), new BurstTask(sequence, x, y, mid, to, base, free, n));
+                return;
+            }
+            burstRange(sequence, x, y, from, to, base, free, n);
+        }
     }
     
     public void setSpawnRate(float rate) {
@@ -221,59 +594,311 @@ public class ParticleSystem {
     }
     
     public void render() {
-        if (renderer == null) return;
+        if (renderer == null || count == 0) return;
+        // 整个发射器在视口外时跳过逐粒子处理
+        if (!isVisible()) return;
+        catchUp();
         
-        for (Particle particle : particles) {
-            Vector2 pos = particle.getPosition();
-            float size = particle.getSize();
-            
-            float r = Math.min(1.0f, Math.max(0.0f, particle.getR()));
-            float g = Math.min(1.0f, Math.max(0.0f, particle.getG()));
-            float b = Math.min(1.0f, Math.max(0.0f, particle.getB()));
-            float a = Math.min(1.0f, Math.max(0.0f, particle.getA())) * config.opacityMultiplier;
-            
-            float maxW = renderer != null ? renderer.getWidth() : 1920;
-            float maxH = renderer != null ? renderer.getHeight() : 1080;
-            if (a > 0.01f && pos.x >= -50 && pos.x <= maxW + 50 && pos.y >= -50 && pos.y <= maxH + 50) {
-                float renderSize = Math.max(config.minRenderSize, size * a);
-                try {
-                    renderer.drawRect(
-                        pos.x - renderSize * 0.5f, pos.y - renderSize * 0.5f, 
-                        renderSize, renderSize,
-                        r, g, b, a
-                    );
-                } catch (Exception e) {
-                }
+        // 裁剪后的粒子打包成实例数据一次提交，GPU 渲染器一次绘制整个发射器
+        if (instances == null) {
+            instances = new float[capacity * IRenderer.PARTICLE_STRIDE];
+        }
+        float maxW = renderer.getWidth();
+        float maxH = renderer.getHeight();
+        float opacity = config.opacityMultiplier;
+        float minSize = config.minRenderSize;
+        int visible = 0;
+        int o = 0;
+        for (int i = 0; i < count; i++) {
+            float x = px[i];
+            float y = py[i];
+            float alpha = Math.min(1.0f, Math.max(0.0f, a[i])) * opacity;
+            if (alpha > 0.01f && x >= -50 && x <= maxW + 50 && y >= -50 && y <= maxH + 50) {
+                instances[o] = x;
+                instances[o + 1] = y;
+                instances[o + 2] = Math.max(minSize, size[i] * alpha);
+                instances[o + 3] = Math.min(1.0f, Math.max(0.0f, r[i]));
+                instances[o + 4] = Math.min(1.0f, Math.max(0.0f, g[i]));
+                instances[o + 5] = Math.min(1.0f, Math.max(0.0f, b[i]));
+                instances[o + 6] = alpha;
+                o += IRenderer.PARTICLE_STRIDE;
+                visible++;
             }
         }
+        if (visible > 0) {
+            renderer.drawParticles(instances, visible);
+        }
     }
     
+    /**
+     * 在发射位置一次发射 count 个粒子；受预算管理时在本帧预算结算时才生成，可能被削减
+     */
     public void burst(int count) {
-        for (int i = 0; i < count; i++) {
-            float angle = (float) (random.nextFloat() * 2.0 * Math.PI);
-            float speed = config.burstSpeedMin + random.nextFloat() * (config.burstSpeedMax - config.burstSpeedMin);
-            Vector2 velocity = new Vector2(
-                (float) (Math.cos(angle) * speed),
-                (float) (Math.sin(angle) * speed)
-            );
-            
-            float life = config.burstLifeMin + random.nextFloat() * (config.burstLifeMax - config.burstLifeMin);
-            float size = config.burstSizeMin + random.nextFloat() * (config.burstSizeMax - config.burstSizeMin);
-            
-            float r = config.burstR;
-            float g = config.burstGMin + random.nextFloat() * (config.burstGMax - config.burstGMin);
-            float b = config.burstB;
-            
-            Particle particle = new Particle(new Vector2(position), velocity, life, size, r, g, b);
-            particles.add(particle);
+        burstAt(position.x, position.y, count);
+    }
+    
+    /**
+     * 在指定位置一次发射 count 个粒子，不改变发射器位置（同一发射器可在多处发射一次性特效）
+     */
+    public void burstAt(float x, float y, int count) {
+        if (count <= 0) return;
+        if (budget != null) {
+            queueBurst(x, y, count);
+            return;
+        }
+        spawnBurst(x, y, count);
+    }
+    
+    private void queueBurst(float x, float y, int count) {
+        int n = (int) Math.min(count, (long) capacity - pendingBurst);
+        if (n <= 0) return;
+        if (burstQueued == burstCount.length) {
+            burstX = Arrays.copyOf(burstX, burstQueued * 2);
+            burstY = Arrays.copyOf(burstY, burstQueued * 2);
+            burstCount = Arrays.copyOf(burstCount, burstQueued * 2);
+        }
+        burstX[burstQueued] = x;
+        burstY[burstQueued] = y;
+        burstCount[burstQueued] = n;
+        burstQueued++;
+        pendingBurst += n;
+    }
+    
+    private void spawnBurst(float x, float y, int n) {
+        if (config.overflowPolicy == OverflowPolicy.RECYCLE) {
+            // 超过容量的部分只会覆盖同批粒子，一批最多写满整个缓冲区
+            n = Math.min(n, capacity);
+        }
+        prepareSpawn(n);
+        int base = this.count;
+        int free = reserve(n);
+        long sequence = spawnSequence++;
+        if (n >= parallelThreshold && pool.getParallelism() > 1) {
+            pool.invoke(new BurstTask(sequence, x, y, 0, n, base, free, n));
+        } else {
+            burstRange(sequence, x, y, 0, n, base, free, n);
+        }
+        commit(n, free);
+        // 按配置上限扩大包围盒，不必逐个粒子统计
+        bounds.include(x, y, config.burstSpeedMax, config.burstSpeedMax, config.burstSizeMax, config.burstLifeMax);
+    }
+    
+    /**
+     * 指定视口（世界坐标），包围盒在视口外时跳过渲染和逐粒子积分
+     */
+    public void setView(float minX, float minY, float maxX, float maxY) {
+        if (maxX < minX || maxY < minY) {
+            throw new IllegalArgumentException("invalid view: " + minX + "," + minY + " - " + maxX + "," + maxY);
         }
+        viewMinX = minX;
+        viewMinY = minY;
+        viewMaxX = maxX;
+        viewMaxY = maxY;
+        viewSet = true;
+    }
+    
+    /**
+     * 恢复使用渲染器窗口作为视口
+     */
+    public void clearView() {
+        viewSet = false;
+    }
+    
+    /**
+     * 当前是否因在视口外而暂停逐粒子积分
+     */
+    public boolean isCulled() {
+        return culledFrames > 0;
+    }
+    
+    /**
+     * 设置并行积分使用的线程池（默认公共池）
+     */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool != null ? pool : ForkJoinPool.commonPool();
+    }
+    
+    /**
+     * 设置并行阈值：存活粒子数或单次 burst 数量达到该值时并行处理
+     */
+    public void setParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = Math.max(1, parallelThreshold);
+    }
+    
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+    
+    void setBudget(ParticleBudget budget) {
+        this.budget = budget;
+        pendingSpawns = 0;
+        pendingBurst = 0;
+        burstQueued = 0;
+    }
+    
+    ParticleBudget getBudget() {
+        return budget;
+    }
+    
+    int getPendingSpawns() {
+        return pendingSpawns;
+    }
+    
+    int getPendingBurst() {
+        return pendingBurst;
+    }
+    
+    /**
+     * 预算判断细节档位用的活动区域：存活粒子包围盒与排队 burst 位置的并集，
+     * 两者都没有时取发射位置；按 minX, minY, maxX, maxY 写入 out
+     */
+    void getActiveArea(float[] out) {
+        float minX = Float.POSITIVE_INFINITY;
+        float minY = Float.POSITIVE_INFINITY;
+        float maxX = Float.NEGATIVE_INFINITY;
+        float maxY = Float.NEGATIVE_INFINITY;
+        if (count > 0) {
+            minX = bounds.minX;
+            minY = bounds.minY;
+            maxX = bounds.maxX;
+            maxY = bounds.maxY;
+        }
+        for (int i = 0; i < burstQueued; i++) {
+            minX = Math.min(minX, burstX[i]);
+            minY = Math.min(minY, burstY[i]);
+            maxX = Math.max(maxX, burstX[i]);
+            maxY = Math.max(maxY, burstY[i]);
+        }
+        if (minX > maxX) {
+            minX = maxX = position.x;
+            minY = maxY = position.y;
+        }
+        out[0] = minX;
+        out[1] = minY;
+        out[2] = maxX;
+        out[3] = maxY;
+    }
+    
+    // 预算结算：按排队顺序生成批准的数量，其余需求作废
+    void grant(int grantedBurst, int spawnCount) {
+        for (int i = 0; i < burstQueued && grantedBurst > 0; i++) {
+            int n = Math.min(burstCount[i], grantedBurst);
+            spawnBurst(burstX[i], burstY[i], n);
+            grantedBurst -= n;
+        }
+        burstQueued = 0;
+        pendingBurst = 0;
+        pendingSpawns = 0;
+        for (int i = 0; i < spawnCount; i++) {
+            spawnParticle();
+        }
+    }
+    
+    /**
+     * 获取发射位置（内部向量，只读）
+     */
+    public Vector2 getPosition() {
+        return position;
+    }
+    
+    public IRenderer getRenderer() {
+        return renderer;
+    }
+    
+    public void setRenderer(IRenderer renderer) {
+        this.renderer = renderer;
     }
     
     public int getParticleCount() {
-        return particles.size();
+        return count;
+    }
+    
+    /**
+     * 获取容量上限
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+    
+    /**
+     * 获取因容量已满被丢弃的粒子总数
+     */
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+    
+    /**
+     * 存活粒子状态的校验和，用于比较相同种子下不同线程数的运行结果
+     */
+    public long checksum() {
+        long hash = count;
+        for (int i = 0; i < count; i++) {
+            hash = hash * 31 + Float.floatToIntBits(px[i]);
+            hash = hash * 31 + Float.floatToIntBits(py[i]);
+            hash = hash * 31 + Float.floatToIntBits(vx[i]);
+            hash = hash * 31 + Float.floatToIntBits(vy[i]);
+            hash = hash * 31 + Float.floatToIntBits(life[i]);
+        }
+        return hash;
     }
     
     public void clear() {
-        particles.clear();
+        count = 0;
+        bounds.reset();
+        resetCulled();
+        pendingSpawns = 0;
+        pendingBurst = 0;
+        burstQueued = 0;
+        recycleCursor = 0;
+    }
+    
+    /**
+     * 发射器包围盒：存活粒子的位置范围，以及速度分量、尺寸、剩余寿命的上界
+     * 不可见期间按速度上界逐帧外扩（速度只会衰减，外扩结果总是包含真实位置）
+     */
+    private static final class Bounds {
+        float minX, minY, maxX, maxY;
+        float maxVx, maxVy, maxSize, maxLife;
+        
+        void reset() {
+            minX = Float.POSITIVE_INFINITY;
+            minY = Float.POSITIVE_INFINITY;
+            maxX = Float.NEGATIVE_INFINITY;
+            maxY = Float.NEGATIVE_INFINITY;
+            maxVx = 0;
+            maxVy = 0;
+            maxSize = 0;
+            maxLife = 0;
+        }
+        
+        void include(float x, float y, float vx, float vy, float size, float life) {
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+            maxVx = Math.max(maxVx, Math.abs(vx));
+            maxVy = Math.max(maxVy, Math.abs(vy));
+            maxSize = Math.max(maxSize, size);
+            maxLife = Math.max(maxLife, life);
+        }
+        
+        void merge(Bounds other) {
+            minX = Math.min(minX, other.minX);
+            minY = Math.min(minY, other.minY);
+            maxX = Math.max(maxX, other.maxX);
+            maxY = Math.max(maxY, other.maxY);
+            maxVx = Math.max(maxVx, other.maxVx);
+            maxVy = Math.max(maxVy, other.maxVy);
+            maxSize = Math.max(maxSize, other.maxSize);
+            maxLife = Math.max(maxLife, other.maxLife);
+        }
+        
+        void grow(float deltaTime) {
+            minX -= maxVx * deltaTime;
+            minY -= maxVy * deltaTime;
+            maxX += maxVx * deltaTime;
+            maxY += maxVy * deltaTime;
+            maxLife -= deltaTime;
+        }
     }
 }
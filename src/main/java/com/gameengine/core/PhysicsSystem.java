@@ -1,22 +1,97 @@
 package com.gameengine.core;
 
+import com.gameengine.collision.CollisionWorld;
+import com.gameengine.collision.ContactBuffer;
+import com.gameengine.components.ColliderComponent;
 import com.gameengine.components.TransformComponent;
 import com.gameengine.components.PhysicsComponent;
+import com.gameengine.math.FixedPoint;
 import com.gameengine.math.Vector2;
 import com.gameengine.scene.Scene;
 
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * 物理系统，每帧对场景内所有物理组件做唯一一次积分，积分后统一按世界边界（WorldBounds）处理越界
+ * 速度持续低于阈值的物体会进入休眠，休眠物体不参与积分和边界处理；
+ * 通过接触相连的物体组成岛，整岛一起休眠、一起唤醒
+ *
+ * 设置积分内核后，半隐式欧拉积分和 BOUNCE / CLAMP 层的边界处理改为先把物体收集到连续数组，
+ * 再由内核批量处理（见 IntegrationKernelFactory）
+ *
+ * 场景为定点物理模式（Scene.PhysicsMode.FIXED_POINT）时，积分和子步全部用
+ * 16.16 定点数完成，组件中的浮点值只是结果副本；相同输入和固定步长下积分结果逐位一致。
+ * 世界边界在积分之后仍按浮点处理，被边界修改的物体下一帧从组件的浮点值重新导入定点状态
+ */
 public class PhysicsSystem {
+    /**
+     * 积分器类型
+     */
+    public enum Integrator {
+        SEMI_IMPLICIT_EULER,
+        VELOCITY_VERLET
+    }
+    
+    /** 摩擦系数的参考帧率：friction 表示每 1/60 秒保留的速度比例 */
+    public static final float FRICTION_REFERENCE_RATE = 60.0f;
+    
+    /** 默认边界在屏幕右侧和下方留出的边距（像素） */
+    public static final float DEFAULT_BOUNDARY_MARGIN = 15.0f;
+    
+    /** 物体数量超过该值时才拆分到线程池并行积分 */
+    private static final int PARALLEL_THRESHOLD = 512;
+    
     private Scene scene;
     private ExecutorService physicsExecutor;
-    private int screenWidth;
-    private int screenHeight;
+    private int threadCount;
+    private boolean boundaryEnabled;
+    private WorldBounds worldBounds;
+    private int culledCount;
+    private Integrator integrator;
+    private float maxStepDistance;
+    private int maxSubSteps;
+    
+    // 休眠
+    private boolean sleepEnabled;
+    private float sleepVelocityThreshold;
+    private float timeToSleep;
+    private CollisionWorld collisionWorld;
+    private int sleepingCount;
+    private int awakeCount;
+    
+    // 岛：只包含出现在接触中的物体，用并查集合并
+    private final Map<PhysicsComponent, Integer> islandIndex = new IdentityHashMap<>();
+    private final List<PhysicsComponent> islandBodies = new ArrayList<>();
+    private int[] islandParent = new int[64];
+    private float[] islandSleepTime = new float[64];
+    private Integer[] islandBoxes = new Integer[64]; // 复用装箱后的索引，避免每帧装箱
+    
+    // 批量积分：按字段收集到连续数组后交给内核处理
+    private IntegrationKernel kernel;
+    private PhysicsComponent[] batchBodies = new PhysicsComponent[0];
+    private TransformComponent[] batchTransforms = new TransformComponent[0];
+    private float[] batchPx, batchPy, batchVx, batchVy, batchAx, batchAy;
+    private float[] batchStep, batchDamping;
+    private int[] batchSubSteps;
+    private int[] batchLayers, batchFlags;
+    
+    // 读取组件状态用的临时向量，单线程路径共用一份，并行积分每个任务一份
+    private final Scratch scratch = new Scratch();
+    
+    private static final class Scratch {
+        final Vector2 acceleration = new Vector2();
+        final Vector2 previousAcceleration = new Vector2();
+        final Vector2 velocity = new Vector2();
+        final Vector2 position = new Vector2();
+    }
     
     public PhysicsSystem(Scene scene) {
         this(scene, 1920, 1080);
@@ -24,39 +99,159 @@ public class PhysicsSystem {
     
     public PhysicsSystem(Scene scene, int screenWidth, int screenHeight) {
         this.scene = scene;
-        this.screenWidth = screenWidth;
-        this.screenHeight = screenHeight;
-        int threadCount = Math.max(2, Runtime.getRuntime().availableProcessors() - 1);
-        this.physicsExecutor = Executors.newFixedThreadPool(threadCount);
+        this.worldBounds = new WorldBounds(0, 0, screenWidth - DEFAULT_BOUNDARY_MARGIN, screenHeight - DEFAULT_BOUNDARY_MARGIN);
+        this.threadCount = Math.max(2, Runtime.getRuntime().availableProcessors() - 1);
+        this.boundaryEnabled = true;
+        this.integrator = Integrator.SEMI_IMPLICIT_EULER;
+        this.maxStepDistance = 8.0f;
+        this.maxSubSteps = 4;
+        this.sleepEnabled = true;
+        this.sleepVelocityThreshold = 5.0f;
+        this.timeToSleep = 0.5f;
     }
     
     public void update(float deltaTime) {
+        if (deltaTime <= 0) return;
+        
         List<PhysicsComponent> physicsComponents = scene.getComponents(PhysicsComponent.class);
         if (physicsComponents.isEmpty()) return;
         
-        int threadCount = Runtime.getRuntime().availableProcessors() - 1;
-        threadCount = Math.max(2, threadCount);
+        // 物体较少时直接在当前线程积分，避免线程调度开销
+        if (scene.getPhysicsMode() == Scene.PhysicsMode.FIXED_POINT) {
+            // 定点模式不走批量内核；整数运算与线程划分无关，可照常并行
+            if (physicsComponents.size() < PARALLEL_THRESHOLD) {
+                step(physicsComponents, 0, physicsComponents.size(), deltaTime, scratch);
+            } else {
+                stepParallel(physicsComponents, deltaTime);
+            }
+        } else if (kernel != null && integrator == Integrator.SEMI_IMPLICIT_EULER) {
+            stepBatch(physicsComponents, deltaTime);
+        } else if (physicsComponents.size() < PARALLEL_THRESHOLD) {
+            step(physicsComponents, 0, physicsComponents.size(), deltaTime, scratch);
+        } else {
+            stepParallel(physicsComponents, deltaTime);
+        }
+        culledCount = 0;
+        if (boundaryEnabled) {
+            applyBounds(physicsComponents);
+        }
+        updateSleeping(physicsComponents);
+    }
+    
+    private void stepParallel(List<PhysicsComponent> physicsComponents, float deltaTime) {
         int batchSize = Math.max(1, physicsComponents.size() / threadCount + 1);
-        
+        ExecutorService executor = getExecutor();
         List<Future<?>> futures = new ArrayList<>();
         
         for (int i = 0; i < physicsComponents.size(); i += batchSize) {
             final int start = i;
             final int end = Math.min(i + batchSize, physicsComponents.size());
-            
-            Future<?> future = physicsExecutor.submit(() -> {
-                for (int j = start; j < end; j++) {
-                    PhysicsComponent physics = physicsComponents.get(j);
-                    if (physics.isEnabled()) {
-                        updatePhysics(physics, deltaTime);
-                        handleBoundary(physics);
-                    }
+            futures.add(executor.submit(() -> step(physicsComponents, start, end, deltaTime)));
+        }
+        
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+    
+    private void step(List<PhysicsComponent> physicsComponents, int start, int end, float deltaTime) {
+        step(physicsComponents, start, end, deltaTime, new Scratch());
+    }
+    
+    private void step(List<PhysicsComponent> physicsComponents, int start, int end, float deltaTime, Scratch scratch) {
+        boolean fixed = scene.getPhysicsMode() == Scene.PhysicsMode.FIXED_POINT;
+        for (int j = start; j < end; j++) {
+            PhysicsComponent physics = physicsComponents.get(j);
+            if (physics.isEnabled() && !physics.isSleeping()) {
+                if (fixed) {
+                    updatePhysicsFixed(physics, deltaTime, scratch);
+                } else {
+                    updatePhysics(physics, deltaTime, scratch);
                 }
-            });
+                if (sleepEnabled) {
+                    physics.updateSleepTime(deltaTime, sleepVelocityThreshold);
+                }
+            }
+        }
+    }
+    
+    /**
+     * 批量积分：收集 → 内核积分（子步数不同的物体用步长 0 跳过多余的子步）→ 写回
+     */
+    private void stepBatch(List<PhysicsComponent> physicsComponents, float deltaTime) {
+        int count = 0;
+        int maxSteps = 1;
+        ensureBatchCapacity(physicsComponents.size());
+        for (int j = 0; j < physicsComponents.size(); j++) {
+            PhysicsComponent physics = physicsComponents.get(j);
+            if (!physics.isEnabled() || physics.isSleeping() || physics.getOwner() == null) continue;
+            TransformComponent transform = physics.getOwner().getComponent(TransformComponent.class);
+            if (transform == null) continue;
             
-            futures.add(future);
+            Vector2 acceleration = physics.getTotalAcceleration(scratch.acceleration);
+            Vector2 velocity = physics.getVelocity(scratch.velocity);
+            Vector2 position = transform.getPosition(scratch.position);
+            int subSteps = computeSubSteps(velocity.x, velocity.y, acceleration.x, acceleration.y, deltaTime);
+            float h = deltaTime / subSteps;
+            
+            batchBodies[count] = physics;
+            batchTransforms[count] = transform;
+            batchPx[count] = position.x;
+            batchPy[count] = position.y;
+            batchVx[count] = velocity.x;
+            batchVy[count] = velocity.y;
+            batchAx[count] = acceleration.x;
+            batchAy[count] = acceleration.y;
+            batchStep[count] = h;
+            batchDamping[count] = (float) Math.pow(physics.getFriction(), h * FRICTION_REFERENCE_RATE);
+            batchSubSteps[count] = subSteps;
+            maxSteps = Math.max(maxSteps, subSteps);
+            count++;
         }
         
+        for (int k = 0; k < maxSteps; k++) {
+            runKernel(count);
+            if (k + 1 < maxSteps) {
+                for (int i = 0; i < count; i++) {
+                    if (batchSubSteps[i] == k + 1) {
+                        batchStep[i] = 0;
+                        batchDamping[i] = 1;
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            PhysicsComponent physics = batchBodies[i];
+            physics.setVelocity(batchVx[i], batchVy[i]);
+            physics.setLastAcceleration(batchAx[i], batchAy[i]);
+            physics.setAcceleration(0, 0);
+            batchTransforms[i].setPosition(batchPx[i], batchPy[i]);
+            if (sleepEnabled) {
+                physics.updateSleepTime(deltaTime, sleepVelocityThreshold);
+            }
+            batchBodies[i] = null;
+            batchTransforms[i] = null;
+        }
+    }
+    
+    // 物体较多时按区间拆分到线程池，区间长度取 64 的倍数以保持向量对齐
+    private void runKernel(int count) {
+        if (count < PARALLEL_THRESHOLD) {
+            runKernel(0, count);
+            return;
+        }
+        int chunk = ((count / threadCount + 1) + 63) & ~63;
+        ExecutorService executor = getExecutor();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < count; i += chunk) {
+            final int from = i;
+            final int to = Math.min(i + chunk, count);
+            futures.add(executor.submit(() -> runKernel(from, to)));
+        }
         for (Future<?> future : futures) {
             try {
                 future.get();
@@ -66,66 +261,416 @@ public class PhysicsSystem {
         }
     }
     
-    private void updatePhysics(PhysicsComponent physics, float deltaTime) {
+    private void runKernel(int from, int to) {
+        kernel.integrate(batchPx, batchPy, batchVx, batchVy, batchAx, batchAy, batchStep, batchDamping, from, to);
+    }
+    
+    /**
+     * 边界处理：把未休眠的物体收集到连续数组，由 WorldBounds 一次处理完（设置了内核时交给内核），
+     * 只写回被修改的物体，并移除需要剔除的物体
+     */
+    private void applyBounds(List<PhysicsComponent> physicsComponents) {
+        int count = 0;
+        ensureBatchCapacity(physicsComponents.size());
+        for (int j = 0; j < physicsComponents.size(); j++) {
+            PhysicsComponent physics = physicsComponents.get(j);
+            if (!physics.isEnabled() || physics.isSleeping() || physics.getOwner() == null) continue;
+            GameObject owner = physics.getOwner();
+            TransformComponent transform = owner.getComponent(TransformComponent.class);
+            if (transform == null) continue;
+            ColliderComponent collider = owner.getComponent(ColliderComponent.class);
+            
+            Vector2 position = transform.getPosition(scratch.position);
+            Vector2 velocity = physics.getVelocity(scratch.velocity);
+            batchBodies[count] = physics;
+            batchTransforms[count] = transform;
+            batchPx[count] = position.x;
+            batchPy[count] = position.y;
+            batchVx[count] = velocity.x;
+            batchVy[count] = velocity.y;
+            batchLayers[count] = collider != null ? collider.getLayer() : ColliderComponent.DEFAULT_LAYER;
+            count++;
+        }
+        
+        culledCount = worldBounds.apply(batchPx, batchPy, batchVx, batchVy, batchLayers, batchFlags, count, kernel);
+        
+        for (int i = 0; i < count; i++) {
+            int flag = batchFlags[i];
+            if (flag == WorldBounds.CULL) {
+                batchBodies[i].getOwner().destroy();
+            } else if (flag == WorldBounds.CHANGED) {
+                batchBodies[i].setVelocity(batchVx[i], batchVy[i]);
+                batchTransforms[i].setPosition(batchPx[i], batchPy[i]);
+            }
+            batchBodies[i] = null;
+            batchTransforms[i] = null;
+        }
+    }
+    
+    private void ensureBatchCapacity(int capacity) {
+        if (batchBodies.length >= capacity) return;
+        int size = Math.max(64, Integer.highestOneBit(capacity - 1) << 1);
+        batchBodies = new PhysicsComponent[size];
+        batchTransforms = new TransformComponent[size];
+        batchPx = new float[size];
+        batchPy = new float[size];
+        batchVx = new float[size];
+        batchVy = new float[size];
+        batchAx = new float[size];
+        batchAy = new float[size];
+        batchStep = new float[size];
+        batchDamping = new float[size];
+        batchSubSteps = new int[size];
+        batchLayers = new int[size];
+        batchFlags = new int[size];
+    }
+    
+    private void updatePhysics(PhysicsComponent physics, float deltaTime, Scratch scratch) {
         GameObject owner = physics.getOwner();
         if (owner == null) return;
         
         TransformComponent transform = owner.getComponent(TransformComponent.class);
         if (transform == null) return;
         
-        Vector2 acceleration = physics.getAcceleration();
+        Vector2 acceleration = physics.getTotalAcceleration(scratch.acceleration);
+        Vector2 previousAcceleration = physics.getLastAcceleration(scratch.previousAcceleration);
+        Vector2 velocity = physics.getVelocity(scratch.velocity);
+        Vector2 position = transform.getPosition(scratch.position);
         
-        if (physics.isUseGravity()) {
-            acceleration = acceleration.add(physics.getGravity());
-            physics.setAcceleration(acceleration);
-        }
+        float ax = acceleration.x;
+        float ay = acceleration.y;
+        float prevAx = previousAcceleration.x;
+        float prevAy = previousAcceleration.y;
+        float vx = velocity.x;
+        float vy = velocity.y;
+        float px = position.x;
+        float py = position.y;
         
-        Vector2 velocity = physics.getVelocity();
-        velocity = velocity.add(acceleration.multiply(deltaTime));
-        velocity = velocity.multiply(physics.getFriction());
-        physics.setVelocity(velocity);
+        // 快速物体按单步最大位移拆分子步
+        int subSteps = computeSubSteps(vx, vy, ax, ay, deltaTime);
+        float h = deltaTime / subSteps;
+        float damping = (float) Math.pow(physics.getFriction(), h * FRICTION_REFERENCE_RATE);
         
-        Vector2 deltaPosition = velocity.multiply(deltaTime);
-        transform.translate(deltaPosition);
+        for (int i = 0; i < subSteps; i++) {
+            if (integrator == Integrator.VELOCITY_VERLET) {
+                px += vx * h + 0.5f * prevAx * h * h;
+                py += vy * h + 0.5f * prevAy * h * h;
+                vx += 0.5f * (prevAx + ax) * h;
+                vy += 0.5f * (prevAy + ay) * h;
+                prevAx = ax;
+                prevAy = ay;
+                vx *= damping;
+                vy *= damping;
+            } else {
+                vx += ax * h;
+                vy += ay * h;
+                vx *= damping;
+                vy *= damping;
+                px += vx * h;
+                py += vy * h;
+            }
+        }
         
-        physics.setAcceleration(new Vector2());
+        physics.setVelocity(vx, vy);
+        physics.setLastAcceleration(ax, ay);
+        physics.setAcceleration(0, 0);
+        transform.setPosition(px, py);
     }
     
-    private void handleBoundary(PhysicsComponent physics) {
+    /**
+     * 定点积分：从定点状态出发（组件被外部修改过时先重新导入），积分用整数完成，
+     * 最后把结果写回组件；边界随后在 applyBounds 中按浮点处理
+     */
+    private void updatePhysicsFixed(PhysicsComponent physics, float deltaTime, Scratch scratch) {
         GameObject owner = physics.getOwner();
         if (owner == null) return;
         
         TransformComponent transform = owner.getComponent(TransformComponent.class);
         if (transform == null) return;
         
-        Vector2 pos = transform.getPosition();
-        Vector2 velocity = physics.getVelocity();
+        Vector2 acceleration = physics.getTotalAcceleration(scratch.acceleration);
+        Vector2 previousAcceleration = physics.getLastAcceleration(scratch.previousAcceleration);
+        Vector2 velocity = physics.getVelocity(scratch.velocity);
+        Vector2 position = transform.getPosition(scratch.position);
         
-        boolean velocityChanged = false;
-        float velX = velocity.x;
-        float velY = velocity.y;
-        float posX = pos.x;
-        float posY = pos.y;
+        FixedPointState state = physics.getFixedState();
+        state.sync(position.x, position.y, velocity.x, velocity.y);
+        int ax = FixedPoint.fromFloat(acceleration.x);
+        int ay = FixedPoint.fromFloat(acceleration.y);
+        int prevAx = FixedPoint.fromFloat(previousAcceleration.x);
+        int prevAy = FixedPoint.fromFloat(previousAcceleration.y);
+        int vx = state.vx;
+        int vy = state.vy;
+        int px = state.x;
+        int py = state.y;
         
-        if (posX <= 0 || posX >= screenWidth - 15) {
-            velX = -velX;
-            velocityChanged = true;
-        }
-        if (posY <= 0 || posY >= screenHeight - 15) {
-            velY = -velY;
-            velocityChanged = true;
+        int dt = FixedPoint.fromFloat(deltaTime);
+        int subSteps = computeSubStepsFixed(vx, vy, ax, ay, dt);
+        int h = dt / subSteps;
+        int damping = state.damping(physics.getFriction(), h, FRICTION_REFERENCE_RATE);
+        
+        for (int i = 0; i < subSteps; i++) {
+            if (integrator == Integrator.VELOCITY_VERLET) {
+                px += FixedPoint.mul(vx, h) + (FixedPoint.mul(FixedPoint.mul(prevAx, h), h) >> 1);
+                py += FixedPoint.mul(vy, h) + (FixedPoint.mul(FixedPoint.mul(prevAy, h), h) >> 1);
+                vx += FixedPoint.mul(prevAx + ax, h) >> 1;
+                vy += FixedPoint.mul(prevAy + ay, h) >> 1;
+                prevAx = ax;
+                prevAy = ay;
+                vx = FixedPoint.mul(vx, damping);
+                vy = FixedPoint.mul(vy, damping);
+            } else {
+                vx += FixedPoint.mul(ax, h);
+                vy += FixedPoint.mul(ay, h);
+                vx = FixedPoint.mul(vx, damping);
+                vy = FixedPoint.mul(vy, damping);
+                px += FixedPoint.mul(vx, h);
+                py += FixedPoint.mul(vy, h);
+            }
         }
         
-        if (posX < 0) posX = 0;
-        if (posY < 0) posY = 0;
-        if (posX > screenWidth - 15) posX = screenWidth - 15;
-        if (posY > screenHeight - 15) posY = screenHeight - 15;
+        state.x = px;
+        state.y = py;
+        state.vx = vx;
+        state.vy = vy;
+        float outX = FixedPoint.toFloat(px);
+        float outY = FixedPoint.toFloat(py);
+        float outVx = FixedPoint.toFloat(vx);
+        float outVy = FixedPoint.toFloat(vy);
+        physics.setVelocity(outVx, outVy);
+        physics.setLastAcceleration(FixedPoint.toFloat(ax), FixedPoint.toFloat(ay));
+        physics.setAcceleration(0, 0);
+        transform.setPosition(outX, outY);
+        state.markExported(outX, outY, outVx, outVy);
+    }
+    
+    /**
+     * 根据静止时间决定休眠/唤醒：孤立物体看自身，岛看其中最短的静止时间，
+     * 因此运动物体碰到休眠物体时会唤醒整个岛
+     */
+    private void updateSleeping(List<PhysicsComponent> physicsComponents) {
+        sleepingCount = 0;
+        awakeCount = 0;
+        if (sleepEnabled && collisionWorld != null) {
+            buildIslands(collisionWorld.getContacts());
+        }
         
-        transform.setPosition(new Vector2(posX, posY));
+        for (int j = 0; j < physicsComponents.size(); j++) {
+            PhysicsComponent physics = physicsComponents.get(j);
+            if (!physics.isEnabled()) continue;
+            if (sleepEnabled && physics.isAllowSleep()) {
+                Integer index = islandIndex.isEmpty() ? null : islandIndex.get(physics);
+                float time = index != null ? islandSleepTime[find(index)] : physics.getSleepTime();
+                if (time >= timeToSleep) {
+                    physics.sleep();
+                } else {
+                    physics.wake();
+                }
+            }
+            if (physics.isSleeping()) {
+                sleepingCount++;
+            } else {
+                awakeCount++;
+            }
+        }
+        islandIndex.clear();
+        islandBodies.clear();
+    }
+    
+    private void buildIslands(ContactBuffer contacts) {
+        for (int i = 0; i < contacts.size(); i++) {
+            int a = islandOf(contacts.getObjectA(i));
+            int b = islandOf(contacts.getObjectB(i));
+            if (a < 0 || b < 0) continue;
+            int rootA = find(a);
+            int rootB = find(b);
+            if (rootA != rootB) {
+                islandParent[rootB] = rootA;
+            }
+        }
+        for (int i = 0; i < islandBodies.size(); i++) {
+            islandSleepTime[i] = Float.MAX_VALUE;
+        }
+        for (int i = 0; i < islandBodies.size(); i++) {
+            int root = find(i);
+            islandSleepTime[root] = Math.min(islandSleepTime[root], islandBodies.get(i).getSleepTime());
+        }
+    }
+    
+    // 登记接触中的物体，返回其在岛数组中的索引（不能休眠的物体不参与，返回 -1）
+    private int islandOf(GameObject obj) {
+        PhysicsComponent physics = obj.getComponent(PhysicsComponent.class);
+        if (physics == null || !physics.isEnabled() || !physics.isAllowSleep()) return -1;
+        Integer index = islandIndex.get(physics);
+        if (index != null) return index;
         
-        if (velocityChanged) {
-            physics.setVelocity(new Vector2(velX, velY));
+        int i = islandBodies.size();
+        if (i == islandParent.length) {
+            islandParent = Arrays.copyOf(islandParent, i * 2);
+            islandSleepTime = Arrays.copyOf(islandSleepTime, i * 2);
+            islandBoxes = Arrays.copyOf(islandBoxes, i * 2);
+        }
+        if (islandBoxes[i] == null) {
+            islandBoxes[i] = i;
+        }
+        islandParent[i] = i;
+        islandBodies.add(physics);
+        islandIndex.put(physics, islandBoxes[i]);
+        return i;
+    }
+    
+    private int find(int i) {
+        while (islandParent[i] != i) {
+            islandParent[i] = islandParent[islandParent[i]];
+            i = islandParent[i];
+        }
+        return i;
+    }
+    
+    private int computeSubSteps(float vx, float vy, float ax, float ay, float deltaTime) {
+        if (maxSubSteps <= 1 || maxStepDistance <= 0) return 1;
+        float ex = vx + ax * deltaTime;
+        float ey = vy + ay * deltaTime;
+        float speed = (float) Math.sqrt(Math.max(vx * vx + vy * vy, ex * ex + ey * ey));
+        int steps = (int) Math.ceil(speed * deltaTime / maxStepDistance);
+        return Math.max(1, Math.min(maxSubSteps, steps));
+    }
+    
+    private int computeSubStepsFixed(int vx, int vy, int ax, int ay, int dt) {
+        if (maxSubSteps <= 1 || maxStepDistance <= 0) return 1;
+        int ex = vx + FixedPoint.mul(ax, dt);
+        int ey = vy + FixedPoint.mul(ay, dt);
+        int speed = Math.max(FixedPoint.length(vx, vy), FixedPoint.length(ex, ey));
+        long distance = ((long) speed * dt) >> FixedPoint.FRACTION_BITS;
+        long stepDistance = Math.max(1, FixedPoint.fromFloat(maxStepDistance));
+        long steps = (distance + stepDistance - 1) / stepDistance;
+        return (int) Math.max(1, Math.min(maxSubSteps, steps));
+    }
+    
+    private ExecutorService getExecutor() {
+        if (physicsExecutor == null) {
+            physicsExecutor = Executors.newFixedThreadPool(threadCount, r -> {
+                Thread t = new Thread(r, "physics-worker");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return physicsExecutor;
+    }
+    
+    /**
+     * 设置积分器
+     */
+    public void setIntegrator(Integrator integrator) {
+        this.integrator = integrator != null ? integrator : Integrator.SEMI_IMPLICIT_EULER;
+    }
+    
+    /**
+     * 设置子步参数：单个子步内允许的最大位移与每帧最多子步数
+     */
+    public void setSubStepping(float maxStepDistance, int maxSubSteps) {
+        this.maxStepDistance = maxStepDistance;
+        this.maxSubSteps = Math.max(1, maxSubSteps);
+    }
+    
+    /**
+     * 启用/禁用积分后的世界边界处理
+     */
+    public void setBoundaryEnabled(boolean boundaryEnabled) {
+        this.boundaryEnabled = boundaryEnabled;
+    }
+    
+    /**
+     * 设置世界边界（默认所有层在屏幕范围内反弹）
+     */
+    public void setWorldBounds(WorldBounds worldBounds) {
+        if (worldBounds == null) {
+            throw new IllegalArgumentException("worldBounds must not be null");
         }
+        this.worldBounds = worldBounds;
+    }
+    
+    public WorldBounds getWorldBounds() {
+        return worldBounds;
+    }
+    
+    /**
+     * 设置批量积分内核（null 表示逐个物体积分）；仅对半隐式欧拉积分生效
+     */
+    public void setKernel(IntegrationKernel kernel) {
+        this.kernel = kernel;
+    }
+    
+    /**
+     * 启用/禁用自动休眠
+     */
+    public void setSleepEnabled(boolean sleepEnabled) {
+        this.sleepEnabled = sleepEnabled;
+        if (!sleepEnabled) {
+            for (PhysicsComponent physics : scene.getComponents(PhysicsComponent.class)) {
+                physics.wake();
+            }
+        }
+    }
+    
+    /**
+     * 设置休眠参数：速度阈值（像素/秒）与进入休眠所需的静止时间（秒）
+     */
+    public void setSleepParameters(float velocityThreshold, float timeToSleep) {
+        this.sleepVelocityThreshold = Math.max(0, velocityThreshold);
+        this.timeToSleep = Math.max(0, timeToSleep);
+    }
+    
+    /**
+     * 设置接触来源：通过接触相连的物体按岛一起休眠和唤醒
+     */
+    public void setCollisionWorld(CollisionWorld collisionWorld) {
+        this.collisionWorld = collisionWorld;
+    }
+    
+    public IntegrationKernel getKernel() {
+        return kernel;
+    }
+    
+    public Integrator getIntegrator() {
+        return integrator;
+    }
+    
+    public float getMaxStepDistance() {
+        return maxStepDistance;
+    }
+    
+    public int getMaxSubSteps() {
+        return maxSubSteps;
+    }
+    
+    public boolean isBoundaryEnabled() {
+        return boundaryEnabled;
+    }
+    
+    public boolean isSleepEnabled() {
+        return sleepEnabled;
+    }
+    
+    /**
+     * 获取上一帧处于休眠的物体数量
+     */
+    public int getSleepingCount() {
+        return sleepingCount;
+    }
+    
+    /**
+     * 获取上一帧因越界被移除的物体数量
+     */
+    public int getCulledCount() {
+        return culledCount;
+    }
+    
+    /**
+     * 获取上一帧参与积分的物体数量
+     */
+    public int getAwakeCount() {
+        return awakeCount;
     }
     
     public void cleanup() {
@@ -142,4 +687,3 @@ public class PhysicsSystem {
         }
     }
 }
-
@@ -0,0 +1,55 @@
+package com.gameengine.core;
+
+/**
+ * 标量积分内核，逐个物体处理，作为向量内核不可用时的后备实现
+ */
+public class ScalarIntegrationKernel implements IntegrationKernel {
+    @Override
+    public void integrate(float[] px, float[] py, float[] vx, float[] vy, float[] ax, float[] ay,
+                          float[] h, float[] damping, int from, int to) {
+        for (int i = from; i < to; i++) {
+            float nvx = (vx[i] + ax[i] * h[i]) * damping[i];
+            float nvy = (vy[i] + ay[i] * h[i]) * damping[i];
+            vx[i] = nvx;
+            vy[i] = nvy;
+            px[i] += nvx * h[i];
+            py[i] += nvy * h[i];
+        }
+    }
+
+    @Override
+    public void bounce(float[] px, float[] py, float[] vx, float[] vy,
+                       float minX, float minY, float maxX, float maxY, int from, int to) {
+        for (int i = from; i < to; i++) {
+            float x = px[i];
+            float y = py[i];
+            vx[i] = x < minX ? Math.abs(vx[i]) : x > maxX ? -Math.abs(vx[i]) : vx[i];
+            vy[i] = y < minY ? Math.abs(vy[i]) : y > maxY ? -Math.abs(vy[i]) : vy[i];
+            px[i] = Math.max(minX, Math.min(maxX, x));
+            py[i] = Math.max(minY, Math.min(maxY, y));
+        }
+    }
+
+    @Override
+    public void clamp(float[] px, float[] py, float[] vx, float[] vy,
+                      float minX, float minY, float maxX, float maxY, int from, int to) {
+        for (int i = from; i < to; i++) {
+            float x = px[i];
+            float y = py[i];
+            vx[i] = x < minX ? Math.max(0, vx[i]) : x > maxX ? Math.min(0, vx[i]) : vx[i];
+            vy[i] = y < minY ? Math.max(0, vy[i]) : y > maxY ? Math.min(0, vy[i]) : vy[i];
+            px[i] = Math.max(minX, Math.min(maxX, x));
+            py[i] = Math.max(minY, Math.min(maxY, y));
+        }
+    }
+
+    @Override
+    public int getLaneCount() {
+        return 1;
+    }
+
+    @Override
+    public String getName() {
+        return "scalar";
+    }
+}
@@ -0,0 +1,92 @@
+package com.gameengine.core;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * 基于 jdk.incubator.vector 的积分内核
+ * 按平台首选宽度一次处理多个物体，尾部不足一个向量的部分交给标量实现
+ *
+ * 只能通过 IntegrationKernelFactory 反射加载：编译和运行都需要 --add-modules jdk.incubator.vector
+ */
+public class VectorIntegrationKernel extends ScalarIntegrationKernel {
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    @Override
+    public void integrate(float[] px, float[] py, float[] vx, float[] vy, float[] ax, float[] ay,
+                          float[] h, float[] damping, int from, int to) {
+        int i = from;
+        int upper = from + SPECIES.loopBound(to - from);
+        for (; i < upper; i += SPECIES.length()) {
+            FloatVector hv = FloatVector.fromArray(SPECIES, h, i);
+            FloatVector dv = FloatVector.fromArray(SPECIES, damping, i);
+
+            FloatVector nvx = FloatVector.fromArray(SPECIES, ax, i)
+                    .fma(hv, FloatVector.fromArray(SPECIES, vx, i)).mul(dv);
+            FloatVector nvy = FloatVector.fromArray(SPECIES, ay, i)
+                    .fma(hv, FloatVector.fromArray(SPECIES, vy, i)).mul(dv);
+            nvx.intoArray(vx, i);
+            nvy.intoArray(vy, i);
+            nvx.fma(hv, FloatVector.fromArray(SPECIES, px, i)).intoArray(px, i);
+            nvy.fma(hv, FloatVector.fromArray(SPECIES, py, i)).intoArray(py, i);
+        }
+        super.integrate(px, py, vx, vy, ax, ay, h, damping, i, to);
+    }
+
+    @Override
+    public void bounce(float[] px, float[] py, float[] vx, float[] vy,
+                       float minX, float minY, float maxX, float maxY, int from, int to) {
+        int i = from;
+        int upper = from + SPECIES.loopBound(to - from);
+        for (; i < upper; i += SPECIES.length()) {
+            bounceAxis(px, vx, minX, maxX, i);
+            bounceAxis(py, vy, minY, maxY, i);
+        }
+        super.bounce(px, py, vx, vy, minX, minY, maxX, maxY, i, to);
+    }
+
+    @Override
+    public void clamp(float[] px, float[] py, float[] vx, float[] vy,
+                      float minX, float minY, float maxX, float maxY, int from, int to) {
+        int i = from;
+        int upper = from + SPECIES.loopBound(to - from);
+        for (; i < upper; i += SPECIES.length()) {
+            clampAxis(px, vx, minX, maxX, i);
+            clampAxis(py, vy, minY, maxY, i);
+        }
+        super.clamp(px, py, vx, vy, minX, minY, maxX, maxY, i, to);
+    }
+
+    // 单个坐标轴的反弹：低于下界时速度取正，高于上界时取负，用掩码混合代替分支
+    private static void bounceAxis(float[] p, float[] v, float min, float max, int i) {
+        FloatVector position = FloatVector.fromArray(SPECIES, p, i);
+        FloatVector velocity = FloatVector.fromArray(SPECIES, v, i);
+        FloatVector speed = velocity.abs();
+        VectorMask<Float> below = position.compare(VectorOperators.LT, min);
+        VectorMask<Float> above = position.compare(VectorOperators.GT, max);
+        velocity.blend(speed, below).blend(speed.neg(), above).intoArray(v, i);
+        position.min(max).max(min).intoArray(p, i);
+    }
+
+    // 单个坐标轴的限制：低于下界时去掉负速度，高于上界时去掉正速度
+    private static void clampAxis(float[] p, float[] v, float min, float max, int i) {
+        FloatVector position = FloatVector.fromArray(SPECIES, p, i);
+        FloatVector velocity = FloatVector.fromArray(SPECIES, v, i);
+        VectorMask<Float> below = position.compare(VectorOperators.LT, min);
+        VectorMask<Float> above = position.compare(VectorOperators.GT, max);
+        velocity.blend(velocity.max(0), below).blend(velocity.min(0), above).intoArray(v, i);
+        position.min(max).max(min).intoArray(p, i);
+    }
+
+    @Override
+    public int getLaneCount() {
+        return SPECIES.length();
+    }
+
+    @Override
+    public String getName() {
+        return "vector-" + SPECIES.length();
+    }
+}
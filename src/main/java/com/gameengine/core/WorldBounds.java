@@ -0,0 +1,287 @@
+package com.gameengine.core;
+
+import com.gameengine.components.ColliderComponent;
+
+import java.util.Arrays;
+
+/**
+ * 世界边界
+ * 按碰撞层声明边界区域和越界策略，由物理系统在积分之后对所有运动物体统一处理一遍
+ * 未单独设置的层使用默认区域和默认策略
+ *
+ * 除 IGNORE 外的策略都会把物体留在区域内或直接移除；
+ * 任何策略下，超出区域加剔除边距（或位置已是 NaN）的物体都会被移除，避免散落的物体越积越多
+ *
+ * 传入积分内核时先按层把物体分组到连续数组，BOUNCE / CLAMP 层整段交给内核处理（向量内核无分支），
+ * 结果与逐个处理逐位一致
+ */
+public class WorldBounds {
+    /**
+     * 越界策略
+     */
+    public enum Policy {
+        /** 限制在区域内，速度改为指向区域内侧 */
+        BOUNCE,
+        /** 限制在区域内，去掉朝外的速度分量 */
+        CLAMP,
+        /** 从对边穿出 */
+        WRAP,
+        /** 一旦越界立即移除 */
+        KILL,
+        /** 不处理，只受剔除边距约束 */
+        IGNORE
+    }
+
+    /** apply 的结果标记：位置或速度被修改 */
+    public static final int CHANGED = 1;
+    /** apply 的结果标记：需要移除 */
+    public static final int CULL = 2;
+
+    /** 默认剔除边距（像素） */
+    public static final float DEFAULT_CULL_MARGIN = 500.0f;
+
+    private final float[] minX = new float[ColliderComponent.MAX_LAYERS];
+    private final float[] minY = new float[ColliderComponent.MAX_LAYERS];
+    private final float[] maxX = new float[ColliderComponent.MAX_LAYERS];
+    private final float[] maxY = new float[ColliderComponent.MAX_LAYERS];
+    private final Policy[] policies = new Policy[ColliderComponent.MAX_LAYERS];
+    private final float[] cullMargins = new float[ColliderComponent.MAX_LAYERS];
+
+    // 内核路径的分组缓冲：layerStart[layer] 到 layerStart[layer + 1] 为该层物体，order 为原下标
+    private final int[] layerStart = new int[ColliderComponent.MAX_LAYERS + 1];
+    private final int[] layerCursor = new int[ColliderComponent.MAX_LAYERS];
+    private int[] order = new int[0];
+    private float[] groupPx = new float[0];
+    private float[] groupPy = new float[0];
+    private float[] groupVx = new float[0];
+    private float[] groupVy = new float[0];
+
+    /**
+     * 创建边界，所有层使用同一个区域和 BOUNCE 策略
+     */
+    public WorldBounds(float minX, float minY, float maxX, float maxY) {
+        for (int layer = 0; layer < ColliderComponent.MAX_LAYERS; layer++) {
+            setRegion(layer, minX, minY, maxX, maxY);
+            policies[layer] = Policy.BOUNCE;
+            cullMargins[layer] = DEFAULT_CULL_MARGIN;
+        }
+    }
+
+    /**
+     * 设置某一层的区域和策略
+     */
+    public void setLayer(int layer, float minX, float minY, float maxX, float maxY, Policy policy) {
+        setRegion(layer, minX, minY, maxX, maxY);
+        setPolicy(layer, policy);
+    }
+
+    /**
+     * 设置某一层的区域
+     */
+    public void setRegion(int layer, float minX, float minY, float maxX, float maxY) {
+        checkLayer(layer);
+        if (maxX < minX || maxY < minY) {
+            throw new IllegalArgumentException("invalid region: " + minX + "," + minY + " - " + maxX + "," + maxY);
+        }
+        this.minX[layer] = minX;
+        this.minY[layer] = minY;
+        this.maxX[layer] = maxX;
+        this.maxY[layer] = maxY;
+    }
+
+    /**
+     * 设置某一层的越界策略
+     */
+    public void setPolicy(int layer, Policy policy) {
+        checkLayer(layer);
+        policies[layer] = policy != null ? policy : Policy.IGNORE;
+    }
+
+    /**
+     * 设置某一层的剔除边距：超出区域该距离后移除
+     */
+    public void setCullMargin(int layer, float margin) {
+        checkLayer(layer);
+        cullMargins[layer] = Math.max(0, margin);
+    }
+
+    /**
+     * 对一批物体应用边界（数组按物体排列，layers 为各物体所在层）
+     * flags 写入每个物体的结果（CHANGED / CULL 的组合），返回需要移除的数量
+     */
+    public int apply(float[] px, float[] py, float[] vx, float[] vy, int[] layers, int[] flags, int count) {
+        int culled = 0;
+        for (int i = 0; i < count; i++) {
+            int flag = apply(px, py, vx, vy, i, layers[i]);
+            flags[i] = flag;
+            if (flag == CULL) culled++;
+        }
+        return culled;
+    }
+
+    // 处理单个物体，返回 CHANGED / CULL 标记
+    private int apply(float[] px, float[] py, float[] vx, float[] vy, int i, int layer) {
+        float x = px[i], y = py[i];
+        float x0 = minX[layer], y0 = minY[layer];
+        float x1 = maxX[layer], y1 = maxY[layer];
+        float margin = cullMargins[layer];
+
+        // 比较写成取反形式，NaN 同样判为越界
+        if (!(x >= x0 - margin && x <= x1 + margin && y >= y0 - margin && y <= y1 + margin)) {
+            return CULL;
+        }
+        if (x >= x0 && x <= x1 && y >= y0 && y <= y1) {
+            return 0;
+        }
+        switch (policies[layer]) {
+            case BOUNCE:
+                vx[i] = x < x0 ? Math.abs(vx[i]) : x > x1 ? -Math.abs(vx[i]) : vx[i];
+                vy[i] = y < y0 ? Math.abs(vy[i]) : y > y1 ? -Math.abs(vy[i]) : vy[i];
+                px[i] = Math.max(x0, Math.min(x1, x));
+                py[i] = Math.max(y0, Math.min(y1, y));
+                return CHANGED;
+            case CLAMP:
+                vx[i] = x < x0 ? Math.max(0, vx[i]) : x > x1 ? Math.min(0, vx[i]) : vx[i];
+                vy[i] = y < y0 ? Math.max(0, vy[i]) : y > y1 ? Math.min(0, vy[i]) : vy[i];
+                px[i] = Math.max(x0, Math.min(x1, x));
+                py[i] = Math.max(y0, Math.min(y1, y));
+                return CHANGED;
+            case WRAP:
+                px[i] = wrap(x, x0, x1);
+                py[i] = wrap(y, y0, y1);
+                return CHANGED;
+            case KILL:
+                return CULL;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * 与 apply 相同，但 BOUNCE 和 CLAMP 层由积分内核整段处理；kernel 为 null 时等同于 apply
+     * 分组缓冲属于本对象，同一个 WorldBounds 不能在多个线程上同时调用
+     */
+    public int apply(float[] px, float[] py, float[] vx, float[] vy, int[] layers, int[] flags, int count,
+                     IntegrationKernel kernel) {
+        if (kernel == null) {
+            return apply(px, py, vx, vy, layers, flags, count);
+        }
+        ensureGroupCapacity(count);
+
+        // 计数排序按层分组，组内保持原顺序
+        Arrays.fill(layerStart, 0);
+        for (int i = 0; i < count; i++) {
+            layerStart[layers[i] + 1]++;
+        }
+        for (int layer = 0; layer < ColliderComponent.MAX_LAYERS; layer++) {
+            layerStart[layer + 1] += layerStart[layer];
+            layerCursor[layer] = layerStart[layer];
+        }
+        for (int i = 0; i < count; i++) {
+            int k = layerCursor[layers[i]]++;
+            order[k] = i;
+            groupPx[k] = px[i];
+            groupPy[k] = py[i];
+            groupVx[k] = vx[i];
+            groupVy[k] = vy[i];
+        }
+
+        int culled = 0;
+        for (int layer = 0; layer < ColliderComponent.MAX_LAYERS; layer++) {
+            int from = layerStart[layer];
+            int to = layerStart[layer + 1];
+            if (from == to) continue;
+            Policy policy = policies[layer];
+            if (policy == Policy.BOUNCE) {
+                kernel.bounce(groupPx, groupPy, groupVx, groupVy,
+                        minX[layer], minY[layer], maxX[layer], maxY[layer], from, to);
+            } else if (policy == Policy.CLAMP) {
+                kernel.clamp(groupPx, groupPy, groupVx, groupVy,
+                        minX[layer], minY[layer], maxX[layer], maxY[layer], from, to);
+            } else {
+                // WRAP / KILL / IGNORE 按原下标逐个处理
+                for (int k = from; k < to; k++) {
+                    int i = order[k];
+                    int flag = apply(px, py, vx, vy, i, layer);
+                    flags[i] = flag;
+                    if (flag == CULL) culled++;
+                }
+                continue;
+            }
+            culled += writeBack(px, py, vx, vy, flags, layer, from, to);
+        }
+        return culled;
+    }
+
+    // 把内核结果写回越界的物体；剔除判断用内核处理前的原始位置
+    private int writeBack(float[] px, float[] py, float[] vx, float[] vy, int[] flags, int layer, int from, int to) {
+        float x0 = minX[layer], y0 = minY[layer];
+        float x1 = maxX[layer], y1 = maxY[layer];
+        float margin = cullMargins[layer];
+        int culled = 0;
+        for (int k = from; k < to; k++) {
+            int i = order[k];
+            float x = px[i], y = py[i];
+            int flag = 0;
+            if (!(x >= x0 - margin && x <= x1 + margin && y >= y0 - margin && y <= y1 + margin)) {
+                flag = CULL;
+                culled++;
+            } else if (!(x >= x0 && x <= x1 && y >= y0 && y <= y1)) {
+                px[i] = groupPx[k];
+                py[i] = groupPy[k];
+                vx[i] = groupVx[k];
+                vy[i] = groupVy[k];
+                flag = CHANGED;
+            }
+            flags[i] = flag;
+        }
+        return culled;
+    }
+
+    private void ensureGroupCapacity(int capacity) {
+        if (order.length >= capacity) return;
+        int size = Math.max(64, Integer.highestOneBit(Math.max(1, capacity - 1)) << 1);
+        order = new int[size];
+        groupPx = new float[size];
+        groupPy = new float[size];
+        groupVx = new float[size];
+        groupVy = new float[size];
+    }
+
+    private static float wrap(float value, float min, float max) {
+        float size = max - min;
+        if (size <= 0) return min;
+        float offset = (value - min) % size;
+        return min + (offset < 0 ? offset + size : offset);
+    }
+
+    private static void checkLayer(int layer) {
+        if (layer < 0 || layer >= ColliderComponent.MAX_LAYERS) {
+            throw new IllegalArgumentException("layer out of range: " + layer);
+        }
+    }
+
+    public float getMinX(int layer) {
+        return minX[layer];
+    }
+
+    public float getMinY(int layer) {
+        return minY[layer];
+    }
+
+    public float getMaxX(int layer) {
+        return maxX[layer];
+    }
+
+    public float getMaxY(int layer) {
+        return maxY[layer];
+    }
+
+    public Policy getPolicy(int layer) {
+        return policies[layer];
+    }
+
+    public float getCullMargin(int layer) {
+        return cullMargins[layer];
+    }
+}
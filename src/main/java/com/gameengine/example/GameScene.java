@@ -104,7 +104,6 @@ public class GameScene extends Scene {
             @Override
             public void update(float deltaTime) {
                 super.update(deltaTime);
-                updateComponents(deltaTime);
                 
                 // 更新所有部位的位置
                 updateBodyParts();
@@ -159,6 +158,10 @@ public class GameScene extends Scene {
         PhysicsComponent physics = player.addComponent(new PhysicsComponent(1.0f));
         physics.setFriction(0.95f);
         
+        // 添加碰撞体
+        ColliderComponent collider = player.addComponent(new ColliderComponent(15, GameLogic.LAYER_PLAYER));
+        collider.setMask(1 << GameLogic.LAYER_ENEMY);
+        
         addGameObject(player);
     }
     
@@ -173,7 +176,6 @@ public class GameScene extends Scene {
             @Override
             public void update(float deltaTime) {
                 super.update(deltaTime);
-                updateComponents(deltaTime);
             }
             
             @Override
@@ -206,6 +208,11 @@ public class GameScene extends Scene {
             (random.nextFloat() - 0.5f) * 150
         ));
         physics.setFriction(0.98f);
+        physics.setRestitution(0.8f); // 与玩家、其他敌人碰撞时弹开
+        
+        // 添加碰撞体（敌人之间互相推开）
+        ColliderComponent collider = enemy.addComponent(new ColliderComponent(10, GameLogic.LAYER_ENEMY));
+        collider.setMask((1 << GameLogic.LAYER_PLAYER) | (1 << GameLogic.LAYER_ENEMY) | (1 << GameLogic.LAYER_BULLET));
         
         // 设置敌人血量
         enemy.setUserData("health", 10);
@@ -224,7 +231,6 @@ public class GameScene extends Scene {
             @Override
             public void update(float deltaTime) {
                 super.update(deltaTime);
-                updateComponents(deltaTime);
             }
             
             @Override
@@ -4,6 +4,7 @@ import com.gameengine.components.TransformComponent;
 import com.gameengine.components.RenderComponent;
 import com.gameengine.core.GameObject;
 import com.gameengine.core.GameEngine;
+import com.gameengine.core.ParticleEffects;
 import com.gameengine.graphics.Renderer;
 import com.gameengine.input.InputManager;
 import com.gameengine.math.Vector2;
@@ -41,6 +42,15 @@ public class ReplayScene extends Scene {
     }
 
     private final List<Keyframe> keyframes = new ArrayList<>();
+    
+    // 特效生成事件（按时间排序），回放时重新生成粒子
+    private static class EffectEvent {
+        double t;
+        ParticleEffects.Type type;
+        float x, y;
+    }
+    private final List<EffectEvent> effects = new ArrayList<>();
+    private int nextEffect;
     private final List<GameObject> objectList = new ArrayList<>();
     
     // 文件选择模式
@@ -62,6 +72,9 @@ public class ReplayScene extends Scene {
         this.time = 0f;
         this.keyframes.clear();
         this.objectList.clear();
+        this.effects.clear();
+        this.nextEffect = 0;
+        getParticleEffects().setRenderer(renderer);
         
         if (recordingPath != null) {
             loadRecording(recordingPath);
@@ -126,6 +139,11 @@ public class ReplayScene extends Scene {
         double u = Math.min(1.0, Math.max(0.0, (time - a.t) / span));
         
         updateInterpolatedPositions(a, b, (float) u);
+        
+        while (nextEffect < effects.size() && effects.get(nextEffect).t <= time) {
+            EffectEvent e = effects.get(nextEffect++);
+            getParticleEffects().spawn(e.type, e.x, e.y);
+        }
     }
 
     @Override
@@ -257,6 +275,17 @@ public class ReplayScene extends Scene {
                     }
                     
                     keyframes.add(kf);
+                } else if ("effect".equals(type)) {
+                    EffectEvent e = new EffectEvent();
+                    e.t = RecordingJson.parseDouble(RecordingJson.field(line, "t"));
+                    e.x = (float) RecordingJson.parseDouble(RecordingJson.field(line, "x"));
+                    e.y = (float) RecordingJson.parseDouble(RecordingJson.field(line, "y"));
+                    try {
+                        e.type = ParticleEffects.Type.valueOf(RecordingJson.stripQuotes(RecordingJson.field(line, "name")));
+                    } catch (IllegalArgumentException | NullPointerException ex) {
+                        continue; // 未知特效，跳过
+                    }
+                    effects.add(e);
                 }
             }
             
@@ -0,0 +1,138 @@
+package com.gameengine.graphics;
+
+import org.lwjgl.glfw.GLFW;
+import org.lwjgl.opengl.ARBDebugOutput;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GLCapabilities;
+import org.lwjgl.opengl.GLDebugMessageARBCallback;
+import org.lwjgl.opengl.GLDebugMessageCallback;
+import org.lwjgl.opengl.KHRDebug;
+import org.lwjgl.system.Callback;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * OpenGL 错误检查（仅调试模式）
+ * 用 -Dgameengine.gl.debug=true 开启：创建调试上下文，支持 KHR_debug / ARB_debug_output 时注册异步回调，
+ * 否则每帧结束时检查一次 glGetError。错误按调用位置汇总：回调路径按（来源, 类型, id）区分，
+ * 两条路径都附带最后进入的绘制阶段（section）；每个位置首次出现时立即输出，之后定期输出汇总
+ *
+ * ENABLED 在类加载时读取一次系统属性，运行期间不变；关闭时各方法在开头直接返回，
+ * JIT 会把 static final 字段按常量折叠，section / endFrame 的检查几乎没有开销（代码并未在编译期移除）
+ */
+final class GLDebug {
+    static final boolean ENABLED = Boolean.getBoolean("gameengine.gl.debug");
+    
+    private static final long REPORT_INTERVAL_NANOS = 5_000_000_000L;
+    
+    private static final Map<String, AtomicLong> SITES = new ConcurrentHashMap<>();
+    private static volatile String section = "init";
+    private static volatile boolean dirty;
+    private static Callback callback;
+    private static long lastReport;
+    
+    private GLDebug() {
+    }
+    
+    /**
+     * 创建窗口前调用：调试模式下请求调试上下文
+     */
+    static void windowHints() {
+        if (!ENABLED) return;
+        GLFW.glfwWindowHint(GLFW.GLFW_OPENGL_DEBUG_CONTEXT, GLFW.GLFW_TRUE);
+    }
+    
+    /**
+     * 上下文创建后调用：能用调试回调时注册回调
+     */
+    static void install(GLCapabilities caps) {
+        if (!ENABLED) return;
+        if (caps.OpenGL43 || caps.GL_KHR_debug) {
+            GLDebugMessageCallback cb = GLDebugMessageCallback.create((source, type, id, severity, length, message, userParam) -> {
+                if (severity == KHRDebug.GL_DEBUG_SEVERITY_NOTIFICATION) return;
+                record("0x" + Integer.toHexString(source) + "/0x" + Integer.toHexString(type) + "/" + id,
+                        GLDebugMessageCallback.getMessage(length, message));
+            });
+            KHRDebug.glDebugMessageCallback(cb, 0);
+            GL11.glEnable(KHRDebug.GL_DEBUG_OUTPUT);
+            callback = cb;
+        } else if (caps.GL_ARB_debug_output) {
+            GLDebugMessageARBCallback cb = GLDebugMessageARBCallback.create((source, type, id, severity, length, message, userParam) -> {
+                record("0x" + Integer.toHexString(source) + "/0x" + Integer.toHexString(type) + "/" + id,
+                        GLDebugMessageARBCallback.getMessage(length, message));
+            });
+            ARBDebugOutput.glDebugMessageCallbackARB(cb, 0);
+            callback = cb;
+        }
+        System.out.println("GL 调试模式: " + (callback != null ? "调试回调" : "每帧 glGetError"));
+    }
+    
+    /**
+     * 标记进入的绘制阶段，错误归到该阶段名下
+     */
+    static void section(String name) {
+        if (!ENABLED) return;
+        section = name;
+    }
+    
+    /**
+     * 每帧结束时调用：没有调试回调时检查一次错误，并定期输出汇总
+     */
+    static void endFrame() {
+        if (!ENABLED) return;
+        if (callback == null) {
+            int error;
+            while ((error = GL11.glGetError()) != GL11.GL_NO_ERROR) {
+                record("glGetError 0x" + Integer.toHexString(error), null);
+            }
+        }
+        long now = System.nanoTime();
+        if (dirty && now - lastReport >= REPORT_INTERVAL_NANOS) {
+            lastReport = now;
+            report();
+        }
+    }
+    
+    // 回调可能来自驱动线程
+    private static void record(String what, String message) {
+        String site = section + ": " + what;
+        AtomicLong counter = SITES.computeIfAbsent(site, key -> new AtomicLong());
+        if (counter.getAndIncrement() == 0) {
+            System.err.println("[GPURenderer] GL " + site + (message != null ? " " + message : ""));
+        }
+        dirty = true;
+    }
+    
+    /**
+     * 输出各位置的错误累计次数
+     */
+    static void report() {
+        if (!ENABLED || SITES.isEmpty()) return;
+        dirty = false;
+        StringBuilder sb = new StringBuilder("[GPURenderer] GL 错误汇总:");
+        for (Map.Entry<String, AtomicLong> entry : SITES.entrySet()) {
+            sb.append("\n  ").append(entry.getKey()).append(" x").append(entry.getValue().get());
+        }
+        System.err.println(sb);
+    }
+    
+    /**
+     * 销毁上下文前、所有 GL 资源释放之后调用：先注销回调再释放，之后驱动不会再调用已释放的本地入口
+     */
+    static void cleanup() {
+        if (!ENABLED) return;
+        if (callback instanceof GLDebugMessageCallback) {
+            GL11.glDisable(KHRDebug.GL_DEBUG_OUTPUT);
+            KHRDebug.glDebugMessageCallback(null, 0);
+        } else if (callback instanceof GLDebugMessageARBCallback) {
+            ARBDebugOutput.glDebugMessageCallbackARB(null, 0);
+        }
+        report();
+        if (callback != null) {
+            callback.free();
+            callback = null;
+        }
+    }
+}
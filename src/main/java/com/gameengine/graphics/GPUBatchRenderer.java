@@ -0,0 +1,245 @@
+package com.gameengine.graphics;
+
+import com.gameengine.math.FastTrig;
+import org.lwjgl.BufferUtils;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL15;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * GPU 图元批处理
+ * 矩形、圆形（拆成三角形）、线段和带纹理的四边形（文字）先写入 CPU 顶点数组
+ * （x, y, u, v 为 float，颜色打包成 4 字节），只在图元类型、纹理或线宽变化、数组写满、
+ * 或调用方需要切换其它 GL 状态（着色器）时提交一次：
+ * 顶点上传到流式 VBO（每次提交前重新分配存储，即 orphan），用顶点数组一次 glDrawArrays 绘制
+ *
+ * 纹理与颜色相乘（GL_MODULATE）。交给批处理的纹理都在 setWhiteTexel 指定的位置有一个不透明白色纹素，
+ * 绑定纹理期间的无纹理图元改用该纹素，不需要切换状态，文字与矩形可以在同一次提交中绘制
+ *
+ * 只依赖 GL 1.5 缓冲和固定管线顶点数组，GL 2.1 上下文可用
+ */
+final class GPUBatchRenderer {
+    /** 每个顶点的字节数：x, y, u, v（float）+ rgba（4 字节） */
+    static final int VERTEX_BYTES = 20;
+    /** 默认容量（顶点数） */
+    static final int DEFAULT_CAPACITY = 1 << 16;
+    
+    private static final boolean LITTLE_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
+    
+    private final int capacity;
+    private final ByteBuffer vertices;
+    private int vertexCount;
+    private int mode = GL11.GL_TRIANGLES;
+    private float lineWidth = 1.0f;
+    private int texture;
+    private float whiteU, whiteV;
+    private GlyphAtlas glyphAtlas;
+    private int vbo;
+    
+    // 统计：自上次 resetStats 以来的提交次数和顶点数
+    private int drawCalls;
+    private int submittedVertices;
+    
+    GPUBatchRenderer() {
+        this(DEFAULT_CAPACITY);
+    }
+    
+    GPUBatchRenderer(int capacity) {
+        // 至少容纳一个完整的三角形和线段
+        this.capacity = Math.max(6, capacity);
+        this.vertices = BufferUtils.createByteBuffer(this.capacity * VERTEX_BYTES);
+        this.vbo = GL15.glGenBuffers();
+    }
+    
+    void rect(float x, float y, float w, float h, float r, float g, float b, float a) {
+        begin(GL11.GL_TRIANGLES, 6);
+        int color = pack(r, g, b, a);
+        float x1 = x + w;
+        float y1 = y + h;
+        vertex(x, y, color);
+        vertex(x1, y, color);
+        vertex(x1, y1, color);
+        vertex(x, y, color);
+        vertex(x1, y1, color);
+        vertex(x, y1, color);
+    }
+    
+    void circle(float x, float y, float radius, int segments, float r, float g, float b, float a) {
+        int color = pack(r, g, b, a);
+        // 单位圆顶点按分段数缓存，这里只做缩放和平移；扇形拆成独立三角形，才能与其它图元合批
+        float[] circle = FastTrig.unitCircle(segments);
+        float px = x + radius * circle[0];
+        float py = y + radius * circle[1];
+        for (int i = 2; i < circle.length; i += 2) {
+            float nx = x + radius * circle[i];
+            float ny = y + radius * circle[i + 1];
+            begin(GL11.GL_TRIANGLES, 3);
+            vertex(x, y, color);
+            vertex(px, py, color);
+            vertex(nx, ny, color);
+            px = nx;
+            py = ny;
+        }
+    }
+    
+    /**
+     * 带纹理的四边形（左上 x0, y0，右下 x1, y1）
+     */
+    void quad(int textureId, float x0, float y0, float x1, float y1,
+              float u0, float v0, float u1, float v1, float r, float g, float b, float a) {
+        if (textureId != texture) {
+            flush();
+            texture = textureId;
+        }
+        begin(GL11.GL_TRIANGLES, 6);
+        int color = pack(r, g, b, a);
+        vertex(x0, y0, u0, v0, color);
+        vertex(x1, y0, u1, v0, color);
+        vertex(x1, y1, u1, v1, color);
+        vertex(x0, y0, u0, v0, color);
+        vertex(x1, y1, u1, v1, color);
+        vertex(x0, y1, u0, v1, color);
+    }
+    
+    /**
+     * 指定纹理中白色纹素的坐标，供绑定纹理期间的无纹理图元使用
+     */
+    void setWhiteTexel(float u, float v) {
+        flush();
+        whiteU = u;
+        whiteV = v;
+    }
+    
+    /**
+     * 设置提交前需要上传的字形图集
+     */
+    void setGlyphAtlas(GlyphAtlas atlas) {
+        flush();
+        glyphAtlas = atlas;
+    }
+    
+    void line(float x1, float y1, float x2, float y2, float width, float r, float g, float b, float a) {
+        if (mode == GL11.GL_LINES && width != lineWidth) {
+            flush();
+        }
+        begin(GL11.GL_LINES, 2);
+        lineWidth = width;
+        int color = pack(r, g, b, a);
+        vertex(x1, y1, color);
+        vertex(x2, y2, color);
+    }
+    
+    // 切换图元类型或空间不足时先提交
+    private void begin(int newMode, int count) {
+        if (mode != newMode) {
+            flush();
+            mode = newMode;
+        }
+        if (vertexCount + count > capacity) {
+            flush();
+        }
+    }
+    
+    private void vertex(float x, float y, int color) {
+        vertex(x, y, whiteU, whiteV, color);
+    }
+    
+    private void vertex(float x, float y, float u, float v, int color) {
+        vertices.putFloat(x).putFloat(y).putFloat(u).putFloat(v).putInt(color);
+        vertexCount++;
+    }
+    
+    // 按本机字节序打包，内存中依次为 r, g, b, a
+    private static int pack(float r, float g, float b, float a) {
+        int ri = toByte(r), gi = toByte(g), bi = toByte(b), ai = toByte(a);
+        return LITTLE_ENDIAN
+                ? ri | gi << 8 | bi << 16 | ai << 24
+                : ri << 24 | gi << 16 | bi << 8 | ai;
+    }
+    
+    private static int toByte(float value) {
+        return (int) (Math.min(1.0f, Math.max(0.0f, value)) * 255.0f + 0.5f);
+    }
+    
+    /**
+     * 提交已收集的图元；调用方切换纹理、着色器等状态前必须调用
+     */
+    void flush() {
+        if (vertexCount == 0) return;
+        if (glyphAtlas != null) {
+            // 本批可能引用刚光栅化的字形，先上传图集的脏行
+            glyphAtlas.commit();
+        }
+        GLDebug.section("batch");
+        vertices.flip();
+        
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vbo);
+        GL15.glBufferData(GL15.GL_ARRAY_BUFFER, (long) capacity * VERTEX_BYTES, GL15.GL_STREAM_DRAW);
+        GL15.glBufferSubData(GL15.GL_ARRAY_BUFFER, 0, vertices);
+        
+        GL11.glEnableClientState(GL11.GL_VERTEX_ARRAY);
+        GL11.glEnableClientState(GL11.GL_COLOR_ARRAY);
+        GL11.glVertexPointer(2, GL11.GL_FLOAT, VERTEX_BYTES, 0);
+        GL11.glColorPointer(4, GL11.GL_UNSIGNED_BYTE, VERTEX_BYTES, 16);
+        if (texture != 0) {
+            GL11.glEnable(GL11.GL_TEXTURE_2D);
+            GL11.glBindTexture(GL11.GL_TEXTURE_2D, texture);
+            GL11.glTexEnvi(GL11.GL_TEXTURE_ENV, GL11.GL_TEXTURE_ENV_MODE, GL11.GL_MODULATE);
+            GL11.glEnableClientState(GL11.GL_TEXTURE_COORD_ARRAY);
+            GL11.glTexCoordPointer(2, GL11.GL_FLOAT, VERTEX_BYTES, 8);
+        }
+        if (mode == GL11.GL_LINES) {
+            GL11.glLineWidth(lineWidth);
+        }
+        GL11.glDrawArrays(mode, 0, vertexCount);
+        if (texture != 0) {
+            GL11.glDisableClientState(GL11.GL_TEXTURE_COORD_ARRAY);
+            GL11.glBindTexture(GL11.GL_TEXTURE_2D, 0);
+            GL11.glDisable(GL11.GL_TEXTURE_2D);
+        }
+        GL11.glDisableClientState(GL11.GL_COLOR_ARRAY);
+        GL11.glDisableClientState(GL11.GL_VERTEX_ARRAY);
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+        
+        drawCalls++;
+        submittedVertices += vertexCount;
+        vertices.clear();
+        vertexCount = 0;
+    }
+    
+    void resetStats() {
+        drawCalls = 0;
+        submittedVertices = 0;
+    }
+    
+    int getDrawCalls() {
+        return drawCalls;
+    }
+    
+    int getSubmittedVertices() {
+        return submittedVertices;
+    }
+    
+    /**
+     * 纹理即将被删除：仍在使用时先提交并解除绑定
+     */
+    void releaseTexture(int textureId) {
+        if (texture == textureId) {
+            flush();
+            texture = 0;
+        }
+    }
+    
+    void cleanup() {
+        vertices.clear();
+        vertexCount = 0;
+        texture = 0;
+        glyphAtlas = null;
+        if (vbo != 0) {
+            GL15.glDeleteBuffers(vbo);
+            vbo = 0;
+        }
+    }
+}
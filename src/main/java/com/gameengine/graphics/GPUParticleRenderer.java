@@ -0,0 +1,189 @@
+package com.gameengine.graphics;
+
+import org.lwjgl.BufferUtils;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL20;
+import org.lwjgl.opengl.GL31;
+import org.lwjgl.opengl.GL33;
+import org.lwjgl.opengl.GLCapabilities;
+
+import java.nio.FloatBuffer;
+
+/**
+ * GPU 粒子渲染
+ * OpenGL 3.3 及以上：实例数据（x, y, size, rgba）写入流式缓冲，单位方形只上传一次，
+ * 每批粒子一次 glDrawArraysInstanced；
+ * 更低版本（GL 2.1 上下文）：逐个写入通用图元批处理，与其它矩形一起提交
+ *
+ * 实例缓冲每次写入前重新分配存储（orphan），驱动不需要等待上一帧的绘制完成
+ */
+final class GPUParticleRenderer {
+    private static final int INSTANCE_BYTES = IRenderer.PARTICLE_STRIDE * Float.BYTES;
+    
+    private static final int ATTRIB_CORNER = 0;
+    private static final int ATTRIB_INSTANCE = 1;
+    private static final int ATTRIB_COLOR = 2;
+    
+    private static final String VERTEX_SHADER =
+            "#version 120\n" +
+            "attribute vec2 corner;\n" +
+            "attribute vec3 instance;\n" +
+            "attribute vec4 color;\n" +
+            "varying vec4 vColor;\n" +
+            "void main() {\n" +
+            "    vColor = color;\n" +
+            "    gl_Position = gl_ModelViewProjectionMatrix * vec4(instance.xy + corner * instance.z, 0.0, 1.0);\n" +
+            "}\n";
+    private static final String FRAGMENT_SHADER =
+            "#version 120\n" +
+            "varying vec4 vColor;\n" +
+            "void main() {\n" +
+            "    gl_FragColor = vColor;\n" +
+            "}\n";
+    
+    private final GPUBatchRenderer batch;
+    private final boolean instanced;
+    private int program;
+    private int cornerBuffer;
+    private int streamBuffer;
+    private FloatBuffer data;
+    
+    GPUParticleRenderer(GLCapabilities caps, GPUBatchRenderer batch) {
+        this.batch = batch;
+        boolean useInstancing = caps.OpenGL33;
+        if (useInstancing) {
+            program = createProgram();
+            useInstancing = program != 0;
+        }
+        instanced = useInstancing;
+        
+        if (instanced) {
+            streamBuffer = GL15.glGenBuffers();
+            // 三角形带顺序的单位方形，以中心为原点
+            FloatBuffer corners = BufferUtils.createFloatBuffer(8);
+            corners.put(new float[] { -0.5f, -0.5f, 0.5f, -0.5f, -0.5f, 0.5f, 0.5f, 0.5f }).flip();
+            cornerBuffer = GL15.glGenBuffers();
+            GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, cornerBuffer);
+            GL15.glBufferData(GL15.GL_ARRAY_BUFFER, corners, GL15.GL_STATIC_DRAW);
+            GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+            data = BufferUtils.createFloatBuffer(1024 * IRenderer.PARTICLE_STRIDE);
+        }
+    }
+    
+    boolean isInstanced() {
+        return instanced;
+    }
+    
+    void draw(float[] instances, int count) {
+        if (count <= 0) return;
+        if (instanced) {
+            drawInstanced(instances, count);
+        } else {
+            drawExpanded(instances, count);
+        }
+    }
+    
+    private void drawInstanced(float[] instances, int count) {
+        // 切换着色器前先提交之前收集的图元，保持绘制顺序
+        batch.flush();
+        GLDebug.section("particles");
+        int floats = count * IRenderer.PARTICLE_STRIDE;
+        ensureCapacity(floats);
+        data.clear();
+        data.put(instances, 0, floats).flip();
+        
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, streamBuffer);
+        GL15.glBufferData(GL15.GL_ARRAY_BUFFER, (long) data.capacity() * Float.BYTES, GL15.GL_STREAM_DRAW);
+        GL15.glBufferSubData(GL15.GL_ARRAY_BUFFER, 0, data);
+        
+        GL20.glUseProgram(program);
+        GL20.glEnableVertexAttribArray(ATTRIB_INSTANCE);
+        GL20.glEnableVertexAttribArray(ATTRIB_COLOR);
+        GL20.glVertexAttribPointer(ATTRIB_INSTANCE, 3, GL11.GL_FLOAT, false, INSTANCE_BYTES, 0);
+        GL20.glVertexAttribPointer(ATTRIB_COLOR, 4, GL11.GL_FLOAT, false, INSTANCE_BYTES, 3L * Float.BYTES);
+        GL33.glVertexAttribDivisor(ATTRIB_INSTANCE, 1);
+        GL33.glVertexAttribDivisor(ATTRIB_COLOR, 1);
+        
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, cornerBuffer);
+        GL20.glEnableVertexAttribArray(ATTRIB_CORNER);
+        GL20.glVertexAttribPointer(ATTRIB_CORNER, 2, GL11.GL_FLOAT, false, 0, 0);
+        
+        GL31.glDrawArraysInstanced(GL11.GL_TRIANGLE_STRIP, 0, 4, count);
+        
+        GL33.glVertexAttribDivisor(ATTRIB_INSTANCE, 0);
+        GL33.glVertexAttribDivisor(ATTRIB_COLOR, 0);
+        GL20.glDisableVertexAttribArray(ATTRIB_CORNER);
+        GL20.glDisableVertexAttribArray(ATTRIB_INSTANCE);
+        GL20.glDisableVertexAttribArray(ATTRIB_COLOR);
+        GL20.glUseProgram(0);
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+    }
+    
+    private void drawExpanded(float[] instances, int count) {
+        for (int i = 0, o = 0; i < count; i++, o += IRenderer.PARTICLE_STRIDE) {
+            float size = instances[o + 2];
+            float half = size * 0.5f;
+            batch.rect(instances[o] - half, instances[o + 1] - half, size, size,
+                    instances[o + 3], instances[o + 4], instances[o + 5], instances[o + 6]);
+        }
+    }
+    
+    private void ensureCapacity(int floats) {
+        if (data.capacity() < floats) {
+            data = BufferUtils.createFloatBuffer(Math.max(floats, data.capacity() * 2));
+        }
+    }
+    
+    private static int createProgram() {
+        int vertex = compileShader(GL20.GL_VERTEX_SHADER, VERTEX_SHADER);
+        int fragment = compileShader(GL20.GL_FRAGMENT_SHADER, FRAGMENT_SHADER);
+        if (vertex == 0 || fragment == 0) {
+            GL20.glDeleteShader(vertex);
+            GL20.glDeleteShader(fragment);
+            return 0;
+        }
+        int program = GL20.glCreateProgram();
+        GL20.glAttachShader(program, vertex);
+        GL20.glAttachShader(program, fragment);
+        GL20.glBindAttribLocation(program, ATTRIB_CORNER, "corner");
+        GL20.glBindAttribLocation(program, ATTRIB_INSTANCE, "instance");
+        GL20.glBindAttribLocation(program, ATTRIB_COLOR, "color");
+        GL20.glLinkProgram(program);
+        GL20.glDeleteShader(vertex);
+        GL20.glDeleteShader(fragment);
+        if (GL20.glGetProgrami(program, GL20.GL_LINK_STATUS) == GL11.GL_FALSE) {
+            System.err.println("[GPURenderer] 粒子着色器链接失败: " + GL20.glGetProgramInfoLog(program));
+            GL20.glDeleteProgram(program);
+            return 0;
+        }
+        return program;
+    }
+    
+    private static int compileShader(int type, String source) {
+        int shader = GL20.glCreateShader(type);
+        GL20.glShaderSource(shader, source);
+        GL20.glCompileShader(shader);
+        if (GL20.glGetShaderi(shader, GL20.GL_COMPILE_STATUS) == GL11.GL_FALSE) {
+            System.err.println("[GPURenderer] 粒子着色器编译失败: " + GL20.glGetShaderInfoLog(shader));
+            GL20.glDeleteShader(shader);
+            return 0;
+        }
+        return shader;
+    }
+    
+    void cleanup() {
+        if (program != 0) {
+            GL20.glDeleteProgram(program);
+            program = 0;
+        }
+        if (cornerBuffer != 0) {
+            GL15.glDeleteBuffers(cornerBuffer);
+            cornerBuffer = 0;
+        }
+        if (streamBuffer != 0) {
+            GL15.glDeleteBuffers(streamBuffer);
+            streamBuffer = 0;
+        }
+    }
+}
@@ -10,12 +10,9 @@ import org.lwjgl.system.MemoryStack;
 import org.lwjgl.system.MemoryUtil;
 
 import java.awt.*;
-import java.awt.image.BufferedImage;
 import java.nio.ByteBuffer;
 import java.nio.IntBuffer;
 import org.lwjgl.BufferUtils;
-import java.util.HashMap;
-import java.util.Map;
 
 public class GPURenderer implements IRenderer {
     private int width;
@@ -24,10 +21,11 @@ public class GPURenderer implements IRenderer {
     private InputManager inputManager;
     private boolean initialized;
     private long window;
-    private Map<Character, Integer> charTextures;
     private Font font;
-    private int fontSize;
-    private boolean texturesPreloaded;
+    private GlyphAtlas glyphAtlas;
+    private GPUBatchRenderer batch;
+    private GPUParticleRenderer particleRenderer;
+    private static final float LINE_WIDTH = 2.5f;
     private static final String PRELOAD_CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789!@#$%^&*()_+-=[]{}|;:,.<>?/~` ";
 
     public GPURenderer(int width, int height, String title) {
@@ -37,10 +35,7 @@ public class GPURenderer implements IRenderer {
         this.inputManager = InputManager.getInstance();
         this.initialized = false;
         this.window = 0;
-        this.charTextures = new HashMap<>();
-        this.font = new Font(Font.MONOSPACED, Font.BOLD, 32);
-        this.fontSize = 32;
-        this.texturesPreloaded = false;
+        this.font = createFont(32);
 
         initialize();
     }
@@ -59,6 +54,7 @@ public class GPURenderer implements IRenderer {
             GLFW.glfwWindowHint(GLFW.GLFW_RESIZABLE, GLFW.GLFW_FALSE);
             GLFW.glfwWindowHint(GLFW.GLFW_CONTEXT_VERSION_MAJOR, 2);
             GLFW.glfwWindowHint(GLFW.GLFW_CONTEXT_VERSION_MINOR, 1);
+            GLDebug.windowHints();
             
             window = GLFW.glfwCreateWindow(width, height, title, MemoryUtil.NULL, MemoryUtil.NULL);
             if (window == MemoryUtil.NULL) {
@@ -86,6 +82,7 @@ public class GPURenderer implements IRenderer {
             
             GLFW.glfwMakeContextCurrent(window);
             GL.createCapabilities();
+            GLDebug.install(GL.getCapabilities());
             GLFW.glfwSwapInterval(1);
             
             GLFW.glfwShowWindow(window);
@@ -107,6 +104,10 @@ public class GPURenderer implements IRenderer {
             
             initialized = true;
             
+            batch = new GPUBatchRenderer();
+            particleRenderer = new GPUParticleRenderer(GL.getCapabilities(), batch);
+            System.out.println("粒子渲染: " + (particleRenderer.isInstanced() ? "实例化" : "顶点数组（回退）"));
+            
             int[] maxTex = new int[1];
             maxTex[0] = GL11.glGetInteger(GL11.GL_MAX_TEXTURE_SIZE);
 
@@ -117,13 +118,28 @@ public class GPURenderer implements IRenderer {
             System.out.println("渲染器: " + glRenderer);
             System.out.println("最大纹理尺寸: " + maxTex[0]);
             
-            // 仅在上下文确认有效后再预加载纹理
-            preloadTextures();
+            // 仅在上下文确认有效后再预加载字形
+            glyphAtlas = new GlyphAtlas(font);
+            glyphAtlas.preload(PRELOAD_CHARS);
+            batch.setWhiteTexel(glyphAtlas.getWhiteU(), glyphAtlas.getWhiteV());
+            batch.setGlyphAtlas(glyphAtlas);
+            System.out.println("预加载字形完成: " + glyphAtlas.getGlyphCount() + " 个, " + glyphAtlas.getPageCount() + " 页图集");
         } catch (Exception e) {
             throw new RuntimeException("GPU渲染器初始化失败: " + e.getMessage(), e);
         }
     }
     
+    /**
+     * 界面文字以中文为主：优先使用与 Swing 渲染器相同的字体，不可用时退回逻辑字体 SansSerif（由 JDK 映射到系统中文字体）
+     */
+    private static Font createFont(int size) {
+        Font preferred = new Font("Microsoft YaHei", Font.BOLD, size);
+        if (preferred.canDisplay('\u4e2d')) {
+            return preferred;
+        }
+        return new Font(Font.SANS_SERIF, Font.BOLD, size);
+    }
+    
     private void setupInput() {
         GLFW.glfwSetKeyCallback(window, (window, key, scancode, action, mods) -> {
             if (action == GLFW.GLFW_PRESS) {
@@ -151,6 +167,7 @@ public class GPURenderer implements IRenderer {
         if (!initialized) return;
         
         GLFW.glfwMakeContextCurrent(window);
+        GLDebug.section("beginFrame");
         
         GL11.glMatrixMode(GL11.GL_PROJECTION);
         GL11.glLoadIdentity();
@@ -170,275 +187,69 @@ public class GPURenderer implements IRenderer {
         GL11.glDisable(GL11.GL_CULL_FACE);
         GL11.glDisable(GL11.GL_COLOR_MATERIAL);
         
+        batch.resetStats();
+        glyphAtlas.beginFrame();
     }
     
     @Override
     public void endFrame() {
         if (!initialized) return;
+        batch.flush();
+        GLDebug.endFrame();
         GLFW.glfwSwapBuffers(window);
     }
     
     @Override
     public void drawRect(float x, float y, float w, float h, float r, float g, float b, float a) {
         if (!initialized) return;
-        
-        GL11.glColor4f(r, g, b, a);
-        GL11.glBegin(GL11.GL_QUADS);
-        GL11.glVertex2f(x, y);
-        GL11.glVertex2f(x + w, y);
-        GL11.glVertex2f(x + w, y + h);
-        GL11.glVertex2f(x, y + h);
-        GL11.glEnd();
-        int err = GL11.glGetError();
-        if (err != GL11.GL_NO_ERROR) {
-            System.err.println("[GPURenderer] drawRect GL error: 0x" + Integer.toHexString(err));
-        }
+        batch.rect(x, y, w, h, r, g, b, a);
+    }
+    
+    @Override
+    public void drawParticles(float[] instances, int count) {
+        if (!initialized) return;
+        particleRenderer.draw(instances, count);
     }
     
     @Override
     public void drawCircle(float x, float y, float radius, int segments, float r, float g, float b, float a) {
         if (!initialized) return;
-        
-        GL11.glColor4f(r, g, b, a);
-        GL11.glBegin(GL11.GL_TRIANGLE_FAN);
-        GL11.glVertex2f(x, y);
-        
-        for (int i = 0; i <= segments; i++) {
-            float angle = (float) (i * 2.0 * Math.PI / segments);
-            float px = x + (float) (radius * Math.cos(angle));
-            float py = y + (float) (radius * Math.sin(angle));
-            GL11.glVertex2f(px, py);
-        }
-        GL11.glEnd();
+        batch.circle(x, y, radius, segments, r, g, b, a);
     }
     
     @Override
     public void drawLine(float x1, float y1, float x2, float y2, float r, float g, float b, float a) {
         if (!initialized) return;
-        
-        GL11.glLineWidth(2.5f);
-        GL11.glColor4f(r, g, b, a);
-        GL11.glBegin(GL11.GL_LINES);
-        GL11.glVertex2f(x1, y1);
-        GL11.glVertex2f(x2, y2);
-        GL11.glEnd();
+        batch.line(x1, y1, x2, y2, LINE_WIDTH, r, g, b, a);
     }
     
+    /**
+     * 绘制文字：字形来自图集，每个字符作为一个带纹理的四边形写入批处理，
+     * 同一图集页上的文字和图元共用一次提交；字符间距取 FontMetrics 的步进宽度
+     * 首次出现的字符按图集的每帧预算光栅化，超出预算的字符先留空、后续帧补上，排版不变
+     */
     @Override
     public void drawText(float x, float y, String text, float r, float g, float b, float a) {
         if (!initialized || text == null || text.isEmpty()) return;
         
-        if (!texturesPreloaded) {
-            preloadTextures();
-        }
+        float quadWidth = glyphAtlas.getCellWidth();
+        float quadHeight = glyphAtlas.getCellHeight();
+        float penX = x - GlyphAtlas.PADDING;
+        float top = y - GlyphAtlas.PADDING;
         
-        GL11.glEnable(GL11.GL_TEXTURE_2D);
-        GL11.glEnable(GL11.GL_BLEND);
-        GL11.glBlendFunc(GL11.GL_SRC_ALPHA, GL11.GL_ONE_MINUS_SRC_ALPHA);
-        
-        float currentX = x;
-        float charHeight = fontSize;
-        float charWidth = fontSize * 0.6f;
-        float spacing = 1.0f;
-        
-        for (int i = 0; i < text.length(); i++) {
-            char c = text.charAt(i);
-            if (c == ' ') {
-                currentX += charWidth * 0.5f;
-                continue;
-            }
-            
-            int textureId = getCharTexture(c);
-            if (textureId > 0) {
-                GL11.glBindTexture(GL11.GL_TEXTURE_2D, textureId);
-                GL11.glTexEnvi(GL11.GL_TEXTURE_ENV, GL11.GL_TEXTURE_ENV_MODE, GL11.GL_MODULATE);
-                GL11.glColor4f(r, g, b, a);
-                GL11.glBegin(GL11.GL_QUADS);
-                GL11.glTexCoord2f(0.0f, 0.0f);
-                GL11.glVertex2f(currentX, y);
-                GL11.glTexCoord2f(1.0f, 0.0f);
-                GL11.glVertex2f(currentX + charWidth, y);
-                GL11.glTexCoord2f(1.0f, 1.0f);
-                GL11.glVertex2f(currentX + charWidth, y + charHeight);
-                GL11.glTexCoord2f(0.0f, 1.0f);
-                GL11.glVertex2f(currentX, y + charHeight);
-                GL11.glEnd();
-            }
-            
-            currentX += charWidth + spacing;
-        }
-        
-        GL11.glBindTexture(GL11.GL_TEXTURE_2D, 0);
-        GL11.glDisable(GL11.GL_TEXTURE_2D);
-    }
-    
-    private void preloadTextures() {
-        if (!initialized || texturesPreloaded) return;
-        
-        GLFW.glfwMakeContextCurrent(window);
-        
-        int loaded = 0;
-        int failed = 0;
-        
-        for (int i = 0; i < PRELOAD_CHARS.length(); i++) {
-            char c = PRELOAD_CHARS.charAt(i);
-            if (c == ' ') continue;
-            
-            if (!charTextures.containsKey(c)) {
-                int error = GL11.glGetError();
-                while (error != GL11.GL_NO_ERROR) {
-                    error = GL11.glGetError();
-                }
-                
-                int textureId = createCharTexture(c);
-                if (textureId > 0) {
-                    charTextures.put(c, textureId);
-                    loaded++;
-                } else {
-                    failed++;
-                }
+        for (int i = 0; i < text.length(); ) {
+            int codePoint = text.codePointAt(i);
+            i += Character.charCount(codePoint);
+            
+            GlyphAtlas.Glyph glyph = glyphAtlas.glyph(codePoint);
+            if (glyph.texture != 0) {
+                batch.quad(glyph.texture, penX, top, penX + quadWidth, top + quadHeight,
+                        glyph.u0, glyph.v0, glyph.u1, glyph.v1, r, g, b, a);
             }
+            penX += glyph.advance;
         }
-        
-        texturesPreloaded = true;
-        System.out.println("预加载字符纹理完成: " + loaded + " 成功, " + failed + " 失败");
     }
     
-    private int getCharTexture(char c) {
-        if (charTextures.containsKey(c)) {
-            return charTextures.get(c);
-        }
-        
-        if (!texturesPreloaded) {
-            preloadTextures();
-            if (charTextures.containsKey(c)) {
-                return charTextures.get(c);
-            }
-        }
-        
-        if (!initialized) {
-            return 0;
-        }
-        
-        GLFW.glfwMakeContextCurrent(window);
-        
-        int error = GL11.glGetError();
-        while (error != GL11.GL_NO_ERROR) {
-            error = GL11.glGetError();
-        }
-        
-        int textureId = createCharTexture(c);
-        if (textureId > 0) {
-            charTextures.put(c, textureId);
-        }
-        return textureId;
-    }
-    
-    private int createCharTexture(char c) {
-        try {
-            BufferedImage img = new BufferedImage(fontSize, fontSize, BufferedImage.TYPE_INT_ARGB);
-            Graphics2D g2d = img.createGraphics();
-            
-            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-            g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
-            g2d.setComposite(AlphaComposite.Clear);
-            g2d.fillRect(0, 0, fontSize, fontSize);
-            
-            g2d.setComposite(AlphaComposite.SrcOver);
-            g2d.setColor(new Color(255, 255, 255, 255));
-            g2d.setFont(font);
-            FontMetrics fm = g2d.getFontMetrics();
-            int x = (fontSize - fm.charWidth(c)) / 2;
-            int y = (fontSize - fm.getHeight()) / 2 + fm.getAscent();
-            g2d.drawString(String.valueOf(c), x, y);
-            g2d.dispose();
-            
-            int[] pixels = new int[fontSize * fontSize];
-            img.getRGB(0, 0, fontSize, fontSize, pixels, 0, fontSize);
-            
-            ByteBuffer buffer = ByteBuffer.allocateDirect(fontSize * fontSize * 4);
-            for (int i = 0; i < pixels.length; i++) {
-                int pixel = pixels[i];
-                buffer.put((byte) ((pixel >> 16) & 0xFF));
-                buffer.put((byte) ((pixel >> 8) & 0xFF));
-                buffer.put((byte) (pixel & 0xFF));
-                buffer.put((byte) ((pixel >> 24) & 0xFF));
-            }
-            buffer.flip();
-            
-            GL11.glPixelStorei(GL11.GL_UNPACK_ALIGNMENT, 1);
-            GL11.glEnable(GL11.GL_TEXTURE_2D);
-            GL11.glBindTexture(GL11.GL_TEXTURE_2D, 0);
-            
-            int prevError = GL11.glGetError();
-            while (prevError != GL11.GL_NO_ERROR) {
-                System.err.println("Clearing OpenGL error before genTextures for '" + c + "': " + Integer.toHexString(prevError));
-                prevError = GL11.glGetError();
-            }
-            
-            int textureId;
-            try {
-                IntBuffer ids = BufferUtils.createIntBuffer(1);
-                GL11.glGenTextures(ids);
-                textureId = ids.get(0);
-            } catch (Throwable t) {
-                textureId = GL11.glGenTextures();
-            }
-            
-            if (textureId <= 0) {
-                int genError = GL11.glGetError();
-                System.err.println("glGenTextures returned 0 or negative for char '" + c + "'");
-                if (genError != GL11.GL_NO_ERROR) {
-                    System.err.println("OpenGL error code: 0x" + Integer.toHexString(genError));
-                } else {
-                    System.err.println("No OpenGL error reported, but textureId is invalid. Possible causes:");
-                    System.err.println("  - OpenGL context not properly initialized");
-                    System.err.println("  - Reached texture limit");
-                    System.err.println("  - Graphics driver issue");
-                }
-                return 0;
-            }
-            
-            int genError = GL11.glGetError();
-            if (genError != GL11.GL_NO_ERROR) {
-                System.err.println("OpenGL error after glGenTextures for '" + c + "': 0x" + Integer.toHexString(genError));
-                GL11.glDeleteTextures(textureId);
-                return 0;
-            }
-            
-            GL11.glBindTexture(GL11.GL_TEXTURE_2D, textureId);
-            
-            int bindError = GL11.glGetError();
-            if (bindError != GL11.GL_NO_ERROR) {
-                System.err.println("OpenGL error binding texture for '" + c + "': " + Integer.toHexString(bindError));
-                GL11.glDeleteTextures(textureId);
-                return 0;
-            }
-            
-            GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_LINEAR);
-            GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_LINEAR);
-            GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_S, GL12.GL_CLAMP_TO_EDGE);
-            GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_T, GL12.GL_CLAMP_TO_EDGE);
-            GL11.glTexImage2D(GL11.GL_TEXTURE_2D, 0, GL11.GL_RGBA, fontSize, fontSize, 0, GL11.GL_RGBA, GL11.GL_UNSIGNED_BYTE, buffer);
-            
-            int texError = GL11.glGetError();
-            if (texError != GL11.GL_NO_ERROR) {
-                System.err.println("OpenGL error uploading texture data for '" + c + "': " + Integer.toHexString(texError));
-                GL11.glDeleteTextures(textureId);
-                return 0;
-            }
-            
-            GL11.glBindTexture(GL11.GL_TEXTURE_2D, 0);
-            GL11.glDisable(GL11.GL_TEXTURE_2D);
-            
-            return textureId;
-        } catch (Exception e) {
-            System.err.println("Exception creating texture for char '" + c + "': " + e.getMessage());
-            e.printStackTrace();
-            return 0;
-        }
-    }
-
     private int createTestTexture() {
         try {
             ByteBuffer buf = BufferUtils.createByteBuffer(4 * 4);
@@ -529,12 +340,20 @@ public class GPURenderer implements IRenderer {
     
     @Override
     public void cleanup() {
-        for (Integer textureId : charTextures.values()) {
-            if (textureId > 0) {
-                GL11.glDeleteTextures(textureId);
-            }
+        if (particleRenderer != null) {
+            particleRenderer.cleanup();
+            particleRenderer = null;
+        }
+        if (glyphAtlas != null) {
+            glyphAtlas.cleanup(batch);
+            glyphAtlas = null;
         }
-        charTextures.clear();
+        if (batch != null) {
+            batch.cleanup();
+            batch = null;
+        }
+        // 释放资源时产生的调试消息仍由回调接收，最后在上下文销毁前注销
+        GLDebug.cleanup();
         
         if (window != MemoryUtil.NULL) {
             GLFW.glfwDestroyWindow(window);
@@ -561,5 +380,22 @@ public class GPURenderer implements IRenderer {
     public String getTitle() {
         return title;
     }
+    
+    /**
+     * 获取本帧到目前为止的批处理提交次数（含文字，不含实例化粒子）
+     */
+    public int getBatchDrawCalls() {
+        return batch != null ? batch.getDrawCalls() : 0;
+    }
+    
+    /**
+     * 获取字形图集的状态：页数、常驻字形数、本帧推迟的字形数、累计淘汰数
+     */
+    public String getGlyphAtlasStats() {
+        if (glyphAtlas == null) return "";
+        return "pages=" + glyphAtlas.getPageCount()
+            + " glyphs=" + glyphAtlas.getGlyphCount()
+            + " deferred=" + glyphAtlas.getDeferredThisFrame()
+            + " evicted=" + glyphAtlas.getEvictionCount();
+    }
 }
-
@@ -0,0 +1,475 @@
+package com.gameengine.graphics;
+
+import org.lwjgl.BufferUtils;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL12;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 字形图集
+ * 字形按需光栅化到少量大纹理（页）中，每页划分为等大的格子，一个字形占一格；
+ * 字形记录所在页、纹理坐标和 FontMetrics 给出的步进宽度，绘制文字时只需查表并向批处理写四边形，
+ * 同一页上的字形在一次提交中画完
+ *
+ * 纹理格式为 GL_ALPHA（字形覆盖率），与顶点颜色相乘得到文字颜色；
+ * 每页第 0 格左上角是不透明白色纹素，供批处理在绑定图集期间绘制无纹理图元
+ *
+ * 中文界面用到的字符集远大于预加载的 ASCII，因此图集是动态的：
+ * - 新字形先光栅化到页的 CPU 副本，批处理提交前（commit）每页用一次 glTexSubImage2D 上传脏行，
+ *   通常每帧最多一次上传
+ * - 每帧光栅化的耗时有上限（至少光栅化一个字形），超出的字形这一帧只推进笔位置，后续帧补上；
+ *   单个汉字光栅化约 0.1~0.5 ms，默认预算下一条十几个字的新文字在一两帧内出齐，不会卡住一帧
+ * - 页数有上限，格子用完后淘汰最久未使用的字形（本帧用过的不淘汰，它们的四边形可能还在批处理里）
+ */
+final class GlyphAtlas {
+    static final int DEFAULT_PAGE_SIZE = 1024;
+    static final int DEFAULT_MAX_PAGES = 4;
+    /** 每帧光栅化的时间预算（纳秒） */
+    static final long DEFAULT_RASTER_BUDGET_NANOS = 2_000_000L;
+    /** 格子四周留白（像素），避免线性过滤采样到相邻字形 */
+    static final int PADDING = 1;
+    private static final int WHITE_SIZE = 4;
+    private static final int ASCII_LIMIT = 128;
+
+    /**
+     * 字形
+     * texture 为 0 表示这一帧没有可画的像素（空格、等待光栅化或图集已满），只推进笔位置
+     */
+    static final class Glyph {
+        final int codePoint;
+        final float advance;
+        int texture;
+        float u0, v0, u1, v1;
+
+        private boolean blank;
+        private int cell = -1;
+        private long lastUsed;
+        // 常驻字形的 LRU 链表，表头最久未使用
+        private Glyph prev, next;
+
+        Glyph(int codePoint, float advance) {
+            this.codePoint = codePoint;
+            this.advance = advance;
+        }
+    }
+
+    /**
+     * 图集页：纹理和它的 CPU 副本，dirtyTop / dirtyBottom 为待上传的行范围
+     */
+    private static final class Page {
+        final int texture;
+        final ByteBuffer pixels;
+        int dirtyTop = Integer.MAX_VALUE;
+        int dirtyBottom;
+
+        Page(int texture, ByteBuffer pixels) {
+            this.texture = texture;
+            this.pixels = pixels;
+        }
+    }
+
+    private final Font font;
+    private final int pageSize;
+    private final int maxPages;
+    private final int cellWidth;
+    private final int cellHeight;
+    private final int columns;
+    private final int cellsPerPage;
+    private final float ascent;
+    private long rasterBudgetNanos = DEFAULT_RASTER_BUDGET_NANOS;
+
+    private final List<Page> pages = new ArrayList<>();
+    private int nextCell = 1;
+    private boolean fullReported;
+
+    private final Glyph[] ascii = new Glyph[ASCII_LIMIT];
+    private final Map<Integer, Glyph> glyphs = new HashMap<>();
+    private Glyph lruHead, lruTail;
+    private int residentCount;
+
+    private long frame;
+    private int rasterizedThisFrame;
+    private long rasterNanosThisFrame;
+    private int deferredThisFrame;
+    private int uploadsThisFrame;
+    private long evictions;
+
+    // 光栅化用的暂存图像，所有字形共用
+    private final BufferedImage image;
+    private final Graphics2D graphics;
+    private final FontMetrics metrics;
+    private final int[] pixels;
+
+    GlyphAtlas(Font font) {
+        this(font, DEFAULT_PAGE_SIZE, DEFAULT_MAX_PAGES);
+    }
+
+    GlyphAtlas(Font font, int pageSize, int maxPages) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("pageSize must be positive: " + pageSize);
+        }
+        if (maxPages <= 0) {
+            throw new IllegalArgumentException("maxPages must be positive: " + maxPages);
+        }
+        this.font = font;
+        this.pageSize = pageSize;
+        this.maxPages = maxPages;
+
+        BufferedImage probe = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D probeGraphics = probe.createGraphics();
+        FontMetrics fm = probeGraphics.getFontMetrics(font);
+        probeGraphics.dispose();
+
+        // 全角字形（汉字）的宽度约等于字号，留出少量余量；更宽的字形会被裁掉
+        this.cellWidth = Math.max(font.getSize() * 5 / 4, fm.charWidth('W')) + PADDING * 2;
+        this.cellHeight = fm.getHeight() + PADDING * 2;
+        this.columns = pageSize / cellWidth;
+        this.cellsPerPage = columns * (pageSize / cellHeight);
+        if (cellsPerPage < 2) {
+            throw new IllegalArgumentException("pageSize " + pageSize + " too small for font size " + font.getSize());
+        }
+        this.ascent = fm.getAscent();
+
+        this.image = new BufferedImage(cellWidth, cellHeight, BufferedImage.TYPE_INT_ARGB);
+        this.graphics = image.createGraphics();
+        graphics.setFont(font);
+        graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        graphics.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+        this.metrics = graphics.getFontMetrics();
+        this.pixels = new int[cellWidth * cellHeight];
+    }
+
+    /**
+     * 开始新的一帧：重置光栅化预算，推进 LRU 时钟
+     */
+    void beginFrame() {
+        frame++;
+        rasterizedThisFrame = 0;
+        rasterNanosThisFrame = 0;
+        deferredThisFrame = 0;
+        uploadsThisFrame = 0;
+    }
+
+    /**
+     * 获取字形并标记为本帧使用；不常驻的字形在预算内光栅化到 CPU 副本，commit 时上传
+     */
+    Glyph glyph(int codePoint) {
+        Glyph glyph = lookup(codePoint);
+        if (glyph == null) {
+            glyph = new Glyph(codePoint, metrics.charWidth(codePoint));
+            store(glyph);
+        }
+        if (glyph.cell >= 0) {
+            touch(glyph);
+        } else if (!glyph.blank) {
+            place(glyph);
+        }
+        return glyph;
+    }
+
+    /**
+     * 预先光栅化一组字符（不受每帧预算限制）
+     */
+    void preload(String chars) {
+        long budget = rasterBudgetNanos;
+        rasterBudgetNanos = Long.MAX_VALUE;
+        for (int i = 0; i < chars.length(); ) {
+            int codePoint = chars.codePointAt(i);
+            glyph(codePoint);
+            i += Character.charCount(codePoint);
+        }
+        rasterBudgetNanos = budget;
+    }
+
+    /**
+     * 上传各页的脏行，每页一次 glTexSubImage2D；需要在绘制本帧新字形之前调用（批处理提交时自动调用）
+     */
+    void commit() {
+        for (Page page : pages) {
+            if (page.dirtyTop >= page.dirtyBottom) continue;
+            GLDebug.section("glyph");
+            ByteBuffer rows = page.pixels.duplicate();
+            rows.limit(page.dirtyBottom * pageSize).position(page.dirtyTop * pageSize);
+            GL11.glBindTexture(GL11.GL_TEXTURE_2D, page.texture);
+            GL11.glPixelStorei(GL11.GL_UNPACK_ALIGNMENT, 1);
+            GL11.glTexSubImage2D(GL11.GL_TEXTURE_2D, 0, 0, page.dirtyTop, pageSize, page.dirtyBottom - page.dirtyTop,
+                    GL11.GL_ALPHA, GL11.GL_UNSIGNED_BYTE, rows);
+            GL11.glBindTexture(GL11.GL_TEXTURE_2D, 0);
+            page.dirtyTop = Integer.MAX_VALUE;
+            page.dirtyBottom = 0;
+            uploadsThisFrame++;
+        }
+    }
+
+    private Glyph lookup(int codePoint) {
+        if (codePoint >= 0 && codePoint < ASCII_LIMIT) {
+            return ascii[codePoint];
+        }
+        return glyphs.get(codePoint);
+    }
+
+    private void store(Glyph glyph) {
+        if (glyph.codePoint >= 0 && glyph.codePoint < ASCII_LIMIT) {
+            ascii[glyph.codePoint] = glyph;
+        } else {
+            glyphs.put(glyph.codePoint, glyph);
+        }
+    }
+
+    private void forget(Glyph glyph) {
+        if (glyph.codePoint >= 0 && glyph.codePoint < ASCII_LIMIT) {
+            ascii[glyph.codePoint] = null;
+        } else {
+            glyphs.remove(glyph.codePoint);
+        }
+    }
+
+    private void place(Glyph glyph) {
+        if (rasterizedThisFrame > 0 && rasterNanosThisFrame >= rasterBudgetNanos) {
+            deferredThisFrame++;
+            return;
+        }
+        long start = System.nanoTime();
+        rasterize(glyph);
+        rasterizedThisFrame++;
+        rasterNanosThisFrame += System.nanoTime() - start;
+    }
+
+    private void rasterize(Glyph glyph) {
+        graphics.setComposite(AlphaComposite.Clear);
+        graphics.fillRect(0, 0, cellWidth, cellHeight);
+        graphics.setComposite(AlphaComposite.SrcOver);
+        graphics.setColor(Color.WHITE);
+        graphics.drawString(new String(Character.toChars(glyph.codePoint)), PADDING, PADDING + ascent);
+        image.getRGB(0, 0, cellWidth, cellHeight, pixels, 0, cellWidth);
+
+        boolean blank = true;
+        for (int pixel : pixels) {
+            if (pixel >>> 24 != 0) {
+                blank = false;
+                break;
+            }
+        }
+        if (blank) {
+            glyph.blank = true;
+            return;
+        }
+
+        int cell = allocateCell();
+        if (cell < 0) {
+            cell = evict();
+        }
+        if (cell < 0) {
+            // 本帧用到的字形已经占满全部格子
+            if (!fullReported) {
+                System.err.println("字形图集已满（" + maxPages + " 页），单帧字形过多，部分字形未显示");
+                fullReported = true;
+            }
+            deferredThisFrame++;
+            return;
+        }
+
+        Page page = pages.get(cell / cellsPerPage);
+        int index = cell % cellsPerPage;
+        int x = (index % columns) * cellWidth;
+        int y = (index / columns) * cellHeight;
+        for (int row = 0; row < cellHeight; row++) {
+            int offset = (y + row) * pageSize + x;
+            int source = row * cellWidth;
+            for (int column = 0; column < cellWidth; column++) {
+                page.pixels.put(offset + column, (byte) (pixels[source + column] >>> 24));
+            }
+        }
+        page.dirtyTop = Math.min(page.dirtyTop, y);
+        page.dirtyBottom = Math.max(page.dirtyBottom, y + cellHeight);
+
+        float scale = 1.0f / pageSize;
+        glyph.cell = cell;
+        glyph.texture = page.texture;
+        glyph.u0 = x * scale;
+        glyph.v0 = y * scale;
+        glyph.u1 = (x + cellWidth) * scale;
+        glyph.v1 = (y + cellHeight) * scale;
+        glyph.lastUsed = frame;
+        link(glyph);
+        residentCount++;
+    }
+
+    private int allocateCell() {
+        if (nextCell % cellsPerPage == 0 || pages.isEmpty()) {
+            if (pages.size() >= maxPages) {
+                return -1;
+            }
+            createPage();
+            // 每页第 0 格留给白色纹素
+            nextCell = (pages.size() - 1) * cellsPerPage + 1;
+        }
+        return nextCell++;
+    }
+
+    /**
+     * 淘汰最久未使用的字形，返回它的格子；表头也是本帧用过的则返回 -1
+     */
+    private int evict() {
+        Glyph victim = lruHead;
+        if (victim == null || victim.lastUsed == frame) {
+            return -1;
+        }
+        unlink(victim);
+        int cell = victim.cell;
+        victim.cell = -1;
+        victim.texture = 0;
+        forget(victim);
+        residentCount--;
+        evictions++;
+        return cell;
+    }
+
+    private void touch(Glyph glyph) {
+        if (glyph.lastUsed == frame) return;
+        glyph.lastUsed = frame;
+        if (glyph != lruTail) {
+            unlink(glyph);
+            link(glyph);
+        }
+    }
+
+    private void link(Glyph glyph) {
+        glyph.prev = lruTail;
+        glyph.next = null;
+        if (lruTail != null) {
+            lruTail.next = glyph;
+        } else {
+            lruHead = glyph;
+        }
+        lruTail = glyph;
+    }
+
+    private void unlink(Glyph glyph) {
+        if (glyph.prev != null) {
+            glyph.prev.next = glyph.next;
+        } else {
+            lruHead = glyph.next;
+        }
+        if (glyph.next != null) {
+            glyph.next.prev = glyph.prev;
+        } else {
+            lruTail = glyph.prev;
+        }
+        glyph.prev = null;
+        glyph.next = null;
+    }
+
+    private void createPage() {
+        ByteBuffer pagePixels = BufferUtils.createByteBuffer(pageSize * pageSize);
+        // 直接分配的缓冲已清零，只需写入白色纹素
+        for (int y = 0; y < WHITE_SIZE; y++) {
+            for (int x = 0; x < WHITE_SIZE; x++) {
+                pagePixels.put(y * pageSize + x, (byte) 255);
+            }
+        }
+
+        GLDebug.section("glyph");
+        int texture = GL11.glGenTextures();
+        GL11.glBindTexture(GL11.GL_TEXTURE_2D, texture);
+        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_LINEAR);
+        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_LINEAR);
+        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_S, GL12.GL_CLAMP_TO_EDGE);
+        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_T, GL12.GL_CLAMP_TO_EDGE);
+        GL11.glPixelStorei(GL11.GL_UNPACK_ALIGNMENT, 1);
+        GL11.glTexImage2D(GL11.GL_TEXTURE_2D, 0, GL11.GL_ALPHA, pageSize, pageSize, 0, GL11.GL_ALPHA, GL11.GL_UNSIGNED_BYTE, pagePixels);
+        GL11.glBindTexture(GL11.GL_TEXTURE_2D, 0);
+        pages.add(new Page(texture, pagePixels));
+    }
+
+    /**
+     * 设置每帧光栅化的时间预算（毫秒）
+     */
+    void setRasterBudget(float millisPerFrame) {
+        if (millisPerFrame <= 0) {
+            throw new IllegalArgumentException("millisPerFrame must be positive: " + millisPerFrame);
+        }
+        this.rasterBudgetNanos = (long) (millisPerFrame * 1_000_000L);
+    }
+
+    /**
+     * 白色纹素的纹理坐标（取白块中心，线性过滤也不会混入透明像素）
+     */
+    float getWhiteU() {
+        return WHITE_SIZE * 0.5f / pageSize;
+    }
+
+    float getWhiteV() {
+        return WHITE_SIZE * 0.5f / pageSize;
+    }
+
+    /**
+     * 字形四边形的尺寸（像素，含留白）
+     */
+    int getCellWidth() {
+        return cellWidth;
+    }
+
+    int getCellHeight() {
+        return cellHeight;
+    }
+
+    int getPageCount() {
+        return pages.size();
+    }
+
+    /**
+     * 常驻图集的字形数（不含空白字形）
+     */
+    int getGlyphCount() {
+        return residentCount;
+    }
+
+    int getRasterizedThisFrame() {
+        return rasterizedThisFrame;
+    }
+
+    /**
+     * 本帧因预算或图集已满而推迟的字形数
+     */
+    int getDeferredThisFrame() {
+        return deferredThisFrame;
+    }
+
+    int getUploadsThisFrame() {
+        return uploadsThisFrame;
+    }
+
+    long getEvictionCount() {
+        return evictions;
+    }
+
+    Font getFont() {
+        return font;
+    }
+
+    void cleanup(GPUBatchRenderer batch) {
+        for (Page page : pages) {
+            if (batch != null) {
+                batch.releaseTexture(page.texture);
+            }
+            GL11.glDeleteTextures(page.texture);
+        }
+        pages.clear();
+        glyphs.clear();
+        Arrays.fill(ascii, null);
+        lruHead = null;
+        lruTail = null;
+        residentCount = 0;
+        nextCell = 1;
+        graphics.dispose();
+    }
+}
@@ -1,6 +1,9 @@
 package com.gameengine.graphics;
 
 public interface IRenderer {
+    /** drawParticles 中每个粒子占用的 float 数：x, y, size, r, g, b, a */
+    int PARTICLE_STRIDE = 7;
+    
     void beginFrame();
     void endFrame();
     
@@ -9,6 +12,18 @@ public interface IRenderer {
     void drawLine(float x1, float y1, float x2, float y2, float r, float g, float b, float a);
     void drawText(float x, float y, String text, float r, float g, float b, float a);
     
+    /**
+     * 绘制一批方形粒子，instances 按 PARTICLE_STRIDE 排列，(x, y) 为中心、size 为边长
+     * 默认逐个 drawRect，支持实例化的渲染器一次提交整批
+     */
+    default void drawParticles(float[] instances, int count) {
+        for (int i = 0, o = 0; i < count; i++, o += PARTICLE_STRIDE) {
+            float half = instances[o + 2] * 0.5f;
+            drawRect(instances[o] - half, instances[o + 1] - half, instances[o + 2], instances[o + 2],
+                    instances[o + 3], instances[o + 4], instances[o + 5], instances[o + 6]);
+        }
+    }
+    
     boolean shouldClose();
     void pollEvents();
     void cleanup();
@@ -17,4 +32,3 @@ public interface IRenderer {
     int getHeight();
     String getTitle();
 }
-
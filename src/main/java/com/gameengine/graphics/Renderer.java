@@ -9,12 +9,16 @@ import java.awt.event.KeyEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * 渲染器
  */
-public class Renderer extends JFrame {
+public class Renderer extends JFrame implements IRenderer {
+    /** 未指定字号时的文字大小 */
+    private static final int DEFAULT_TEXT_SIZE = 16;
+    
     private int width;
     private int height;
     private String title;
@@ -138,6 +142,21 @@ public class Renderer extends JFrame {
         gamePanel.addDrawable(new TextDrawable(text, x, y, size, r, g, b, a));
     }
     
+    /**
+     * 绘制文字（默认字号）
+     */
+    public void drawText(float x, float y, String text, float r, float g, float b, float a) {
+        drawText(text, x, y, DEFAULT_TEXT_SIZE, r, g, b, a);
+    }
+    
+    /**
+     * 绘制一批粒子，整批作为一个绘制项
+     */
+    public void drawParticles(float[] instances, int count) {
+        if (count <= 0) return;
+        gamePanel.addDrawable(new ParticlesDrawable(Arrays.copyOf(instances, count * PARTICLE_STRIDE), count));
+    }
+    
     /**
      * 检查窗口是否应该关闭
      */
@@ -232,6 +251,28 @@ public class Renderer extends JFrame {
         }
     }
     
+    /**
+     * 粒子批绘制类
+     */
+    private static class ParticlesDrawable implements Drawable {
+        private final float[] instances;
+        private final int count;
+        
+        public ParticlesDrawable(float[] instances, int count) {
+            this.instances = instances;
+            this.count = count;
+        }
+        
+        @Override
+        public void draw(Graphics2D g) {
+            for (int i = 0, o = 0; i < count; i++, o += PARTICLE_STRIDE) {
+                float size = instances[o + 2];
+                g.setColor(new Color(instances[o + 3], instances[o + 4], instances[o + 5], instances[o + 6]));
+                g.fillRect((int) (instances[o] - size * 0.5f), (int) (instances[o + 1] - size * 0.5f), (int) size, (int) size);
+            }
+        }
+    }
+    
     /**
      * 圆形绘制类
      */
@@ -0,0 +1,104 @@
+package com.gameengine.math;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 查表三角函数与单位圆顶点缓存
+ * 正弦表把一整圈分成 TABLE_SIZE 份，查表后线性插值，最大误差约 3e-7，足够用于随机方向和图形顶点；
+ * 需要精确结果的地方（物理、定点模式）仍应使用 Math / StrictMath
+ *
+ * 角度可以用弧度（sin / cos），也可以用圈数（sinTurns / cosTurns，1 表示一整圈），
+ * 后者直接接受 Random.nextFloat() 的结果，省去乘以 2π
+ */
+public final class FastTrig {
+    public static final float TWO_PI = (float) (Math.PI * 2);
+
+    private static final int TABLE_BITS = 12;
+    private static final int TABLE_SIZE = 1 << TABLE_BITS;
+    private static final int TABLE_MASK = TABLE_SIZE - 1;
+    private static final float RADIANS_TO_INDEX = TABLE_SIZE / TWO_PI;
+    private static final int QUARTER = TABLE_SIZE / 4;
+
+    // 多存一项，插值时不需要回绕
+    private static final float[] SIN = new float[TABLE_SIZE + 1];
+
+    /** 缓存的最大分段数，更大的分段数每次现算 */
+    public static final int MAX_CACHED_SEGMENTS = 256;
+    private static final AtomicReferenceArray<float[]> UNIT_CIRCLES = new AtomicReferenceArray<>(MAX_CACHED_SEGMENTS + 1);
+
+    static {
+        for (int i = 0; i <= TABLE_SIZE; i++) {
+            SIN[i] = (float) Math.sin(i * Math.PI * 2 / TABLE_SIZE);
+        }
+    }
+
+    private FastTrig() {
+    }
+
+    /**
+     * 正弦（弧度）
+     */
+    public static float sin(float radians) {
+        return lookup(radians * RADIANS_TO_INDEX, 0);
+    }
+
+    /**
+     * 余弦（弧度）
+     */
+    public static float cos(float radians) {
+        return lookup(radians * RADIANS_TO_INDEX, QUARTER);
+    }
+
+    /**
+     * 正弦（圈数）
+     */
+    public static float sinTurns(float turns) {
+        return lookup(turns * TABLE_SIZE, 0);
+    }
+
+    /**
+     * 余弦（圈数）
+     */
+    public static float cosTurns(float turns) {
+        return lookup(turns * TABLE_SIZE, QUARTER);
+    }
+
+    private static float lookup(float position, int offset) {
+        float floor = (float) Math.floor(position);
+        int index = ((int) floor + offset) & TABLE_MASK;
+        float fraction = position - floor;
+        float a = SIN[index];
+        return a + (SIN[index + 1] - a) * fraction;
+    }
+
+    /**
+     * 获取单位圆顶点：按 x0, y0, x1, y1 ... 排列，共 segments + 1 个点（首尾重合），从角度 0 开始逆时针
+     * 返回的数组是共享缓存，调用方不能修改
+     */
+    public static float[] unitCircle(int segments) {
+        if (segments < 3) segments = 3;
+        if (segments > MAX_CACHED_SEGMENTS) {
+            return buildUnitCircle(segments);
+        }
+        float[] circle = UNIT_CIRCLES.get(segments);
+        if (circle == null) {
+            // 并发首次访问时可能重复构建，结果相同，保留先写入的一份
+            UNIT_CIRCLES.compareAndSet(segments, null, buildUnitCircle(segments));
+            circle = UNIT_CIRCLES.get(segments);
+        }
+        return circle;
+    }
+
+    private static float[] buildUnitCircle(int segments) {
+        float[] circle = new float[(segments + 1) * 2];
+        for (int i = 0; i <= segments; i++) {
+            double angle = i * Math.PI * 2 / segments;
+            circle[i * 2] = (float) Math.cos(angle);
+            circle[i * 2 + 1] = (float) Math.sin(angle);
+        }
+        // 首尾精确重合，避免扇形出现缝隙
+        circle[segments * 2] = circle[0];
+        circle[segments * 2 + 1] = circle[1];
+        return circle;
+    }
+}
@@ -0,0 +1,87 @@
+package com.gameengine.math;
+
+/**
+ * 16.16 定点数运算
+ * 整数部分 16 位、小数部分 16 位，表示范围约 ±32767，精度 1/65536。
+ * 所有运算只用整数，结果与 JIT 层级、平台和线程划分无关
+ */
+public final class FixedPoint {
+    public static final int FRACTION_BITS = 16;
+    public static final int ONE = 1 << FRACTION_BITS;
+    public static final int HALF = ONE >> 1;
+
+    private FixedPoint() {
+    }
+
+    /**
+     * 浮点数转定点数（四舍五入）
+     */
+    public static int fromFloat(float value) {
+        return Math.round(value * ONE);
+    }
+
+    /**
+     * 定点数转浮点数
+     */
+    public static float toFloat(int value) {
+        return value / (float) ONE;
+    }
+
+    /**
+     * 整数转定点数
+     */
+    public static int fromInt(int value) {
+        return value << FRACTION_BITS;
+    }
+
+    /**
+     * 定点数乘法
+     */
+    public static int mul(int a, int b) {
+        return (int) (((long) a * b) >> FRACTION_BITS);
+    }
+
+    /**
+     * 定点数除法
+     */
+    public static int div(int a, int b) {
+        return (int) (((long) a << FRACTION_BITS) / b);
+    }
+
+    /**
+     * 定点数平方根（负数返回 0）
+     */
+    public static int sqrt(int value) {
+        if (value <= 0) return 0;
+        return (int) isqrt((long) value << FRACTION_BITS);
+    }
+
+    /**
+     * 定点数平方和（小数部分 32 位）开方，得到 16.16 长度；用于求向量长度，避免中间结果溢出
+     */
+    public static int length(int x, int y) {
+        return (int) isqrt((long) x * x + (long) y * y);
+    }
+
+    /**
+     * 64 位整数平方根（向下取整）
+     */
+    public static long isqrt(long value) {
+        if (value <= 0) return 0;
+        long result = 0;
+        long bit = 1L << 62;
+        while (bit > value) {
+            bit >>= 2;
+        }
+        while (bit != 0) {
+            if (value >= result + bit) {
+                value -= result + bit;
+                result = (result >> 1) + bit;
+            } else {
+                result >>= 1;
+            }
+            bit >>= 2;
+        }
+        return result;
+    }
+}
@@ -2,6 +2,8 @@ package com.gameengine.math;
 
 /**
  * 2D向量类，用于表示位置、速度等
+ * add / subtract / multiply / normalize 返回新对象；*Local、set 和 mulAdd 原地修改并返回自身，
+ * 供每帧执行的代码使用，避免产生临时对象
  */
 public class Vector2 {
     public float x;
@@ -42,6 +44,81 @@ public class Vector2 {
         return new Vector2(this.x * scalar, this.y * scalar);
     }
     
+    /**
+     * 设置分量
+     */
+    public Vector2 set(float x, float y) {
+        this.x = x;
+        this.y = y;
+        return this;
+    }
+    
+    /**
+     * 复制另一个向量的分量
+     */
+    public Vector2 set(Vector2 other) {
+        this.x = other.x;
+        this.y = other.y;
+        return this;
+    }
+    
+    /**
+     * 原地加法
+     */
+    public Vector2 addLocal(Vector2 other) {
+        this.x += other.x;
+        this.y += other.y;
+        return this;
+    }
+    
+    /**
+     * 原地加法
+     */
+    public Vector2 addLocal(float x, float y) {
+        this.x += x;
+        this.y += y;
+        return this;
+    }
+    
+    /**
+     * 原地减法
+     */
+    public Vector2 subtractLocal(Vector2 other) {
+        this.x -= other.x;
+        this.y -= other.y;
+        return this;
+    }
+    
+    /**
+     * 原地标量乘法
+     */
+    public Vector2 scaleLocal(float scalar) {
+        this.x *= scalar;
+        this.y *= scalar;
+        return this;
+    }
+    
+    /**
+     * 原地乘加：this += other * scalar
+     */
+    public Vector2 mulAdd(Vector2 other, float scalar) {
+        this.x += other.x * scalar;
+        this.y += other.y * scalar;
+        return this;
+    }
+    
+    /**
+     * 原地标准化（零向量保持不变）
+     */
+    public Vector2 normalizeLocal() {
+        float mag = magnitude();
+        if (mag != 0) {
+            this.x /= mag;
+            this.y /= mag;
+        }
+        return this;
+    }
+    
     /**
      * 计算向量长度
      */
@@ -65,11 +142,27 @@ public class Vector2 {
         return this.x * other.x + this.y * other.y;
     }
     
+    /**
+     * 计算长度的平方
+     */
+    public float magnitudeSquared() {
+        return x * x + y * y;
+    }
+    
     /**
      * 计算距离
      */
     public float distance(Vector2 other) {
-        return this.subtract(other).magnitude();
+        return (float) Math.sqrt(distanceSquared(other));
+    }
+    
+    /**
+     * 计算距离的平方
+     */
+    public float distanceSquared(Vector2 other) {
+        float dx = this.x - other.x;
+        float dy = this.y - other.y;
+        return dx * dx + dy * dy;
     }
     
     @Override
@@ -3,6 +3,7 @@ package com.gameengine.recording;
 import com.gameengine.components.TransformComponent;
 import com.gameengine.components.RenderComponent;
 import com.gameengine.core.GameObject;
+import com.gameengine.core.ParticleEffects;
 import com.gameengine.input.InputManager;
 import com.gameengine.scene.Scene;
 import com.gameengine.math.Vector2;
@@ -26,6 +27,13 @@ public class RecordingService {
     private final double warmupSec = 0.1; // 等待一帧让场景对象完成初始化
     private final DecimalFormat qfmt;
     private Scene lastScene;
+    private Scene effectScene;
+    // 特效整体记为一条生成事件，粒子本身不进入关键帧
+    private final ParticleEffects.Listener effectListener = this::recordEffect;
+    
+    // 关键帧复用的缓冲：同名对象计数（值为单元素数组，避免装箱）与位置
+    private final java.util.Map<String, int[]> nameCounters = new java.util.HashMap<>();
+    private final Vector2 scratchPosition = new Vector2();
     
     // 用于异步写入的缓冲区
     private java.util.concurrent.BlockingQueue<String> lineQueue;
@@ -88,6 +96,11 @@ public class RecordingService {
         // 写入头部信息
         enqueue("{\"type\":\"header\",\"version\":1,\"w\":" + width + ",\"h\":" + height + "}");
         keyframeElapsed = 0.0;
+        
+        if (scene != null) {
+            effectScene = scene;
+            scene.getParticleEffects().setListener(effectListener);
+        }
     }
 
     /**
@@ -104,6 +117,13 @@ public class RecordingService {
         
         recording = false;
         
+        if (effectScene != null) {
+            if (effectScene.getParticleEffects().getListener() == effectListener) {
+                effectScene.getParticleEffects().setListener(null);
+            }
+            effectScene = null;
+        }
+        
         try { 
             writerThread.join(500); 
         } catch (InterruptedException ignored) {}
@@ -145,6 +165,13 @@ public class RecordingService {
         }
     }
 
+    private void recordEffect(ParticleEffects.Type type, float x, float y) {
+        if (!recording) return;
+        enqueue("{\"type\":\"effect\",\"t\":" + qfmt.format(elapsed)
+                + ",\"name\":\"" + type.name() + "\""
+                + ",\"x\":" + qfmt.format(x) + ",\"y\":" + qfmt.format(y) + "}");
+    }
+
     /**
      * 写入关键帧
      * @param scene 当前场景
@@ -158,25 +185,31 @@ public class RecordingService {
         boolean first = true;
         int count = 0;
         
-        // 为同名对象计数，生成唯一ID
-        java.util.Map<String, Integer> nameCounters = new java.util.HashMap<>();
+        // 为同名对象计数，生成唯一ID（保留上次的条目，只把计数清零）
+        for (int[] counter : nameCounters.values()) {
+            counter[0] = 0;
+        }
         
         for (GameObject obj : objs) {
             TransformComponent tc = obj.getComponent(TransformComponent.class);
             if (tc == null) continue;
             
-            float x = tc.getPosition().x;
-            float y = tc.getPosition().y;
+            Vector2 position = tc.getPosition(scratchPosition);
+            float x = position.x;
+            float y = position.y;
             
             // 生成唯一ID：对象名_序号
             String baseName = obj.getName();
-            int index = nameCounters.getOrDefault(baseName, 0);
-            nameCounters.put(baseName, index + 1);
-            String uniqueId = baseName + "_" + index;
+            int[] counter = nameCounters.get(baseName);
+            if (counter == null) {
+                counter = new int[1];
+                nameCounters.put(baseName, counter);
+            }
+            int index = counter[0]++;
             
             if (!first) sb.append(',');
             sb.append('{')
-              .append("\"id\":\"").append(uniqueId).append("\",")
+              .append("\"id\":\"").append(baseName).append('_').append(index).append("\",")
               .append("\"name\":\"").append(baseName).append("\",")
               .append("\"x\":").append(qfmt.format(x)).append(',')
               .append("\"y\":").append(qfmt.format(y));
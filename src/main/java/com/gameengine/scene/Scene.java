@@ -1,20 +1,36 @@
 package com.gameengine.scene;
 
+import com.gameengine.core.FrameArena;
 import com.gameengine.core.GameObject;
+import com.gameengine.core.ParticleBudget;
+import com.gameengine.core.ParticleEffects;
 import com.gameengine.core.Component;
 // 移除具体游戏逻辑的import
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * 场景类，管理游戏对象和组件
+ * 查询方法返回的列表来自当前线程的 FrameArena，只在本帧内有效，需要跨帧保存时请自行复制
  */
 public class Scene {
+    /**
+     * 物理数值模式
+     */
+    public enum PhysicsMode {
+        /** 浮点积分（默认） */
+        FLOAT,
+        /** 16.16 定点积分与碰撞检测，结果逐位可复现，用于锁步同步和纯输入回放 */
+        FIXED_POINT
+    }
+    
     private String name;
     private List<GameObject> gameObjects;
     private List<GameObject> objectsToAdd;
     private List<GameObject> objectsToRemove;
     private boolean initialized;
+    private PhysicsMode physicsMode;
+    private ParticleBudget particleBudget;
+    private ParticleEffects particleEffects;
     // 移除未使用的组件索引
     
     public Scene(String name) {
@@ -23,6 +39,7 @@ public class Scene {
         this.objectsToAdd = new ArrayList<>();
         this.objectsToRemove = new ArrayList<>();
         this.initialized = false;
+        this.physicsMode = PhysicsMode.FLOAT;
         // 移除组件索引初始化
     }
     
@@ -65,6 +82,11 @@ public class Scene {
                 iterator.remove();
             }
         }
+        
+        // 粒子在对象更新之后结算，本帧对象触发的 burst 当帧生成
+        if (particleBudget != null) {
+            particleBudget.update(deltaTime);
+        }
     }
     
     /**
@@ -76,6 +98,9 @@ public class Scene {
                 obj.render();
             }
         }
+        if (particleBudget != null) {
+            particleBudget.render();
+        }
     }
     
     /**
@@ -89,19 +114,28 @@ public class Scene {
      * 根据组件类型查找游戏对象
      */
     public <T extends Component<T>> List<GameObject> findGameObjectsByComponent(Class<T> componentType) {
-        return gameObjects.stream()
-            .filter(obj -> obj.hasComponent(componentType))
-            .collect(Collectors.toList());
+        List<GameObject> result = FrameArena.current().list();
+        for (int i = 0; i < gameObjects.size(); i++) {
+            GameObject obj = gameObjects.get(i);
+            if (obj.hasComponent(componentType)) {
+                result.add(obj);
+            }
+        }
+        return result;
     }
     
     /**
      * 获取所有具有指定组件的游戏对象
      */
     public <T extends Component<T>> List<T> getComponents(Class<T> componentType) {
-        return findGameObjectsByComponent(componentType).stream()
-            .map(obj -> obj.getComponent(componentType))
-            .filter(Objects::nonNull)
-            .collect(Collectors.toList());
+        List<T> result = FrameArena.current().list();
+        for (int i = 0; i < gameObjects.size(); i++) {
+            T component = gameObjects.get(i).getComponent(componentType);
+            if (component != null) {
+                result.add(component);
+            }
+        }
+        return result;
     }
     
     /**
@@ -111,6 +145,43 @@ public class Scene {
         gameObjects.clear();
         objectsToAdd.clear();
         objectsToRemove.clear();
+        if (particleEffects != null) {
+            particleEffects.clear();
+        }
+        if (particleBudget != null) {
+            particleBudget.clear();
+        }
+    }
+    
+    /**
+     * 设置物理数值模式
+     */
+    public void setPhysicsMode(PhysicsMode physicsMode) {
+        this.physicsMode = physicsMode != null ? physicsMode : PhysicsMode.FLOAT;
+    }
+    
+    public PhysicsMode getPhysicsMode() {
+        return physicsMode;
+    }
+    
+    /**
+     * 获取场景粒子预算（首次调用时创建），注册到预算的发射器由场景统一更新和渲染
+     */
+    public ParticleBudget getParticleBudget() {
+        if (particleBudget == null) {
+            particleBudget = new ParticleBudget();
+        }
+        return particleBudget;
+    }
+    
+    /**
+     * 获取场景的一次性特效（首次调用时创建），特效粒子由场景粒子预算管理，不是场景对象
+     */
+    public ParticleEffects getParticleEffects() {
+        if (particleEffects == null) {
+            particleEffects = new ParticleEffects(getParticleBudget());
+        }
+        return particleEffects;
     }
     
     /**
@@ -124,7 +195,11 @@ public class Scene {
      * 获取所有游戏对象
      */
     public List<GameObject> getGameObjects() {
-        return new ArrayList<>(gameObjects);
+        List<GameObject> result = FrameArena.current().list();
+        for (int i = 0; i < gameObjects.size(); i++) {
+            result.add(gameObjects.get(i));
+        }
+        return result;
     }
     
     // 移除具体游戏逻辑，让子类实现